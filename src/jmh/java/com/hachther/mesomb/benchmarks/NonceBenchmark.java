@@ -0,0 +1,39 @@
+package com.hachther.mesomb.benchmarks;
+
+import com.hachther.mesomb.util.RandomGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nonce generation, from one thread and from several threads at once
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NonceBenchmark {
+    @Benchmark
+    public String nonce() {
+        return RandomGenerator.nonce(40);
+    }
+
+    @Benchmark
+    public String uniqueNonce() {
+        return RandomGenerator.uniqueNonce(40);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nonceContended() {
+        return RandomGenerator.nonce(40);
+    }
+}
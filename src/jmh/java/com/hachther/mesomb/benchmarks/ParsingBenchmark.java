@@ -0,0 +1,107 @@
+package com.hachther.mesomb.benchmarks;
+
+import com.hachther.mesomb.models.PaginatedWalletTransactions;
+import com.hachther.mesomb.models.Transaction;
+import com.hachther.mesomb.models.TransactionResponse;
+import com.hachther.mesomb.util.JsonReader;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of API responses into the models, streamed with JsonReader the way the operations do it, and through a
+ * json-simple tree for comparison
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private String transactionResponse;
+    private String transactions;
+    private String walletTransactions;
+
+    @Setup
+    public void setup() {
+        transactionResponse = Samples.transactionResponse();
+        transactions = Samples.transactions(size);
+        walletTransactions = Samples.walletTransactionsPage(Math.min(size, 100));
+    }
+
+    @Benchmark
+    public TransactionResponse transactionResponse() throws IOException, ParseException, java.text.ParseException {
+        return new TransactionResponse(new JsonReader(new StringReader(transactionResponse)));
+    }
+
+    @Benchmark
+    public Transaction[] transactions() throws IOException, ParseException, java.text.ParseException {
+        JsonReader reader = new JsonReader(new StringReader(transactions));
+        List<Transaction> result = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            result.add(new Transaction(reader));
+        }
+        reader.endArray();
+        return result.toArray(new Transaction[0]);
+    }
+
+    @Benchmark
+    public Transaction[] transactionsLazy() throws IOException, ParseException, java.text.ParseException {
+        JsonReader reader = new JsonReader(new StringReader(transactions));
+        List<Transaction> result = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            result.add(new Transaction(reader, true));
+        }
+        reader.endArray();
+        return result.toArray(new Transaction[0]);
+    }
+
+    @Benchmark
+    public PaginatedWalletTransactions walletTransactionsPage() throws IOException, ParseException, java.text.ParseException {
+        return new PaginatedWalletTransactions(new JsonReader(new StringReader(walletTransactions)));
+    }
+
+    @Benchmark
+    public TransactionResponse transactionResponseTree() throws IOException, ParseException, java.text.ParseException {
+        return new TransactionResponse((JSONObject) new JSONParser().parse(new StringReader(transactionResponse)));
+    }
+
+    @Benchmark
+    public Transaction[] transactionsTree() throws IOException, ParseException, java.text.ParseException {
+        JSONArray response = (JSONArray) new JSONParser().parse(new StringReader(transactions));
+        Transaction[] result = new Transaction[response.size()];
+        for (int i = 0; i < response.size(); i++) {
+            result[i] = new Transaction((JSONObject) response.get(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public PaginatedWalletTransactions walletTransactionsPageTree() throws IOException, ParseException, java.text.ParseException {
+        return new PaginatedWalletTransactions((JSONObject) new JSONParser().parse(new StringReader(walletTransactions)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.hachther.mesomb.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realistic request bodies and responses shared by the benchmarks
+ */
+final class Samples {
+    static final String URL = "https://mesomb.hachther.com/api/v1.1/payment/collect/";
+    static final String SEARCH_URL = "https://mesomb.hachther.com/api/v1.1/payment/transactions/?ids=a4f2d1c9-7b0e-4c35-9e51-0d6f1f0e2b7a&source=MESOMB";
+
+    static final Map<String, String> CREDENTIALS = new HashMap<String, String>() {{
+        put("accessKey", "c6c40b76-8119-4e93-81bf-bfb55417b392");
+        put("secretKey", "fe8c2445-810f-4caa-95c9-778d51580163");
+    }};
+
+    private Samples() {
+    }
+
+    /**
+     * @return the body of a collect with customer, location and products
+     */
+    static Map<String, Object> collectBody() {
+        List<Map<String, Object>> products = new ArrayList<>();
+        products.add(new HashMap<String, Object>() {{
+            put("id", "SKU001");
+            put("name", "Sac a Main");
+            put("category", "Sac");
+            put("quantity", 1);
+            put("amount", 100f);
+        }});
+        Map<String, Object> body = new HashMap<>();
+        body.put("amount", 100f);
+        body.put("service", "MTN");
+        body.put("payer", "670000000");
+        body.put("country", "CM");
+        body.put("currency", "XAF");
+        body.put("fees", true);
+        body.put("conversion", false);
+        body.put("products", products);
+        body.put("customer", new HashMap<String, Object>() {{
+            put("phone", "+237677550439");
+            put("email", "fisher.bank@gmail.com");
+            put("first_name", "Fisher");
+            put("last_name", "BANK");
+        }});
+        body.put("location", new HashMap<String, Object>() {{
+            put("town", "Douala");
+            put("country", "Cameroun");
+        }});
+        return body;
+    }
+
+    /**
+     * @param i used to vary the identifiers
+     * @return a transaction as returned by the API
+     */
+    static String transaction(int i) {
+        return "{\"pk\":\"a4f2d1c9-7b0e-4c35-9e51-" + String.format("%012d", i) + "\",\"status\":\"SUCCESS\",\"type\":\"COLLECT\","
+                + "\"amount\":100.0,\"fees\":2,\"b_party\":\"237670000000\",\"message\":null,\"service\":\"MTN\",\"reference\":\"REF" + i + "\","
+                + "\"ts\":\"2024-01-01T00:00:00Z\",\"country\":\"CM\",\"currency\":\"XAF\",\"fin_trx_id\":\"FIN" + i + "\",\"trxamount\":102,"
+                + "\"location\":{\"town\":\"Douala\",\"region\":\"Littoral\",\"country\":\"CM\"},"
+                + "\"customer\":{\"email\":\"fisher.bank@gmail.com\",\"phone\":\"+237677550439\",\"first_name\":\"Fisher\",\"last_name\":\"BANK\"}}";
+    }
+
+    /**
+     * @return the response of a collect
+     */
+    static String transactionResponse() {
+        return "{\"success\":true,\"message\":\"Your payment has been processed\",\"redirect\":null,\"reference\":\"REF0\","
+                + "\"status\":\"SUCCESS\",\"transaction\":" + transaction(0) + "}";
+    }
+
+    /**
+     * @param size number of transactions
+     * @return a JSON array of transactions
+     */
+    static String transactions(int size) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(transaction(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * @param size number of transactions in the page
+     * @return a page of wallet transactions
+     */
+    static String walletTransactionsPage(int size) {
+        StringBuilder builder = new StringBuilder("{\"count\":1000,\"next\":\"https://mesomb.hachther.com/api/v1.1/wallet/transactions/?page=2\",\"previous\":null,\"results\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i).append(",\"status\":\"SUCCESS\",\"type\":\"DEPOSIT\",\"amount\":1500.0,\"direction\":1,")
+                    .append("\"wallet\":42,\"balance_after\":").append(1500.0 * (i + 1)).append(",\"date\":\"2024-01-01T00:00:00Z\",")
+                    .append("\"country\":\"CM\",\"fin_trx_id\":\"FIN").append(i).append("\",\"message\":null}");
+        }
+        return builder.append("]}").toString();
+    }
+}
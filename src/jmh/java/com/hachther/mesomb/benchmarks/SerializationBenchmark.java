@@ -0,0 +1,71 @@
+package com.hachther.mesomb.benchmarks;
+
+import com.hachther.mesomb.Signature;
+import com.hachther.mesomb.requests.CollectRequest;
+import org.json.simple.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of collect request bodies, from a map as makeCollect(Map) does and from a typed CollectRequest
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private Map<String, Object> body;
+    private Map<String, Object> customer;
+    private Map<String, Object> location;
+    private List<Map<String, Object>> products;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        body = Samples.collectBody();
+        customer = (Map<String, Object>) body.get("customer");
+        location = (Map<String, Object>) body.get("location");
+        products = (List<Map<String, Object>>) body.get("products");
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return JSONObject.toJSONString(body);
+    }
+
+    @Benchmark
+    public byte[] serializeBody() {
+        return Signature.serializeBody(body);
+    }
+
+    @Benchmark
+    public byte[] mapRequest() {
+        // makeCollect(Map) copies the parameters into the body before serializing it
+        return Signature.serializeBody(new HashMap<>(body));
+    }
+
+    @Benchmark
+    public byte[] collectRequest() {
+        return CollectRequest.builder(100, "MTN", "670000000")
+                .customer(customer)
+                .location(location)
+                .products(products)
+                .build()
+                .toJson();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hachther.mesomb.benchmarks;
+
+import com.hachther.mesomb.EndpointTemplate;
+import com.hachther.mesomb.Signature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.MalformedURLException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing of GET and POST requests, with the URL based API and with precompiled endpoints
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureBenchmark {
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private Map<String, Object> body;
+    private byte[] content;
+    private EndpointTemplate getTemplate;
+    private EndpointTemplate postTemplate;
+    private Date date;
+    private Signature.SigningKey secretKey;
+
+    @Setup
+    public void setup() throws MalformedURLException {
+        body = Samples.collectBody();
+        content = Signature.serializeBody(body);
+        getTemplate = EndpointTemplate.compile(Samples.SEARCH_URL.substring(0, Samples.SEARCH_URL.indexOf('?')), null);
+        postTemplate = EndpointTemplate.compile(Samples.URL, CONTENT_TYPE);
+        date = new Date(1673827200000L);
+        secretKey = new Signature.SigningKey(Samples.CREDENTIALS.get("secretKey"));
+    }
+
+    @Benchmark
+    public String signGet() throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        return Signature.signRequest("payment", "GET", Samples.SEARCH_URL, date, "fihser", Samples.CREDENTIALS, null, null);
+    }
+
+    @Benchmark
+    public String signPost() throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("content-type", CONTENT_TYPE);
+        return Signature.signRequest("payment", "POST", Samples.URL, date, "fihser", Samples.CREDENTIALS, headers, body);
+    }
+
+    @Benchmark
+    public String signGetTemplate() throws NoSuchAlgorithmException, InvalidKeyException {
+        return Signature.signRequest("payment", "GET", getTemplate, "ids=a4f2d1c9-7b0e-4c35-9e51-0d6f1f0e2b7a&source=MESOMB", date, "fihser",
+                Samples.CREDENTIALS.get("accessKey"), secretKey, null);
+    }
+
+    @Benchmark
+    public String signPostTemplate() throws NoSuchAlgorithmException, InvalidKeyException {
+        return Signature.signRequest("payment", "POST", postTemplate, "", date, "fihser",
+                Samples.CREDENTIALS.get("accessKey"), secretKey, content);
+    }
+}
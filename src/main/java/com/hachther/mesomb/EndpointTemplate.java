@@ -0,0 +1,136 @@
+package com.hachther.mesomb;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The parts of a request that only depend on the endpoint URL, computed once and reused to sign every request sent
+ * to that endpoint.
+ */
+public final class EndpointTemplate {
+    private static final String QUERY_CHARS = "-._~!$&'()*+,;=:@/?";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String url;
+    private final URI uri;
+    private final String host;
+    private final String path;
+    private final String contentType;
+    private final String signedHeaders;
+    private final String canonicalHeaders;
+
+    private EndpointTemplate(String url, String host, String path, String contentType) {
+        this.url = url;
+        this.uri = URI.create(url);
+        this.host = host;
+        this.path = path;
+        this.contentType = contentType;
+        if (contentType != null) {
+            this.signedHeaders = "content-type;host;x-mesomb-date;x-mesomb-nonce";
+            this.canonicalHeaders = "content-type:" + contentType + "\nhost:" + host + "\n";
+        } else {
+            this.signedHeaders = "host;x-mesomb-date;x-mesomb-nonce";
+            this.canonicalHeaders = "host:" + host + "\n";
+        }
+    }
+
+    /**
+     * Compile the template of an endpoint
+     *
+     * @param url the URL of the endpoint, without query
+     * @param contentType the content type of the requests with a body, null for requests without one
+     * @return the template
+     * @throws MalformedURLException if the URL is not valid
+     */
+    public static EndpointTemplate compile(String url, String contentType) throws MalformedURLException {
+        URL parse = new URL(url);
+        if (parse.getQuery() != null) {
+            throw new MalformedURLException("Endpoint URL must not have a query: " + url);
+        }
+        String host = parse.getProtocol() + "://" + parse.getHost() + (parse.getPort() > 0 ? ":" + parse.getPort() : "");
+        String path;
+        try {
+            path = URLEncoder.encode(parse.getPath(), "UTF-8").replaceAll("%2F", "/");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        return new EndpointTemplate(url, host, path, contentType);
+    }
+
+    /**
+     * @param query the query of the request, as signed, empty for none. Characters not allowed in a URI are percent
+     * encoded, existing escapes are kept.
+     * @return the URI of a request to this endpoint
+     */
+    public URI toUri(String query) {
+        return query.isEmpty() ? uri : URI.create(url + "?" + encodeQuery(query));
+    }
+
+    private static String encodeQuery(String query) {
+        int i = 0;
+        while (i < query.length() && isAllowed(query, i)) {
+            i++;
+        }
+        if (i == query.length()) {
+            return query;
+        }
+        StringBuilder builder = new StringBuilder(query.length() + 16).append(query, 0, i);
+        while (i < query.length()) {
+            if (isAllowed(query, i)) {
+                builder.append(query.charAt(i++));
+                continue;
+            }
+            int codePoint = query.codePointAt(i);
+            for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+                builder.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Check if a character of the query can be sent as is: an unreserved or reserved character (RFC 3986), or the
+     * percent sign of a valid escape
+     */
+    private static boolean isAllowed(String query, int index) {
+        char c = query.charAt(index);
+        if (c == '%') {
+            return index + 2 < query.length() && isHex(query.charAt(index + 1)) && isHex(query.charAt(index + 2));
+        }
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || QUERY_CHARS.indexOf(c) >= 0;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /** @return the value of the signed host header */
+    public String getHost() {
+        return host;
+    }
+
+    /** @return the URL encoded path, as signed */
+    public String getPath() {
+        return path;
+    }
+
+    /** @return the content type of the requests, null for requests without body */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /** @return the names of the signed headers, separated by semicolons */
+    public String getSignedHeaders() {
+        return signedHeaders;
+    }
+
+    /** @return the canonical headers preceding the date and the nonce, ending with a new line */
+    String getCanonicalHeaders() {
+        return canonicalHeaders;
+    }
+}
@@ -1,5 +1,15 @@
 package com.hachther.mesomb;
 
+import com.hachther.mesomb.http.CircuitBreaker;
+import com.hachther.mesomb.http.ConcurrencyLimiter;
+import com.hachther.mesomb.http.HedgingPolicy;
+import com.hachther.mesomb.http.HttpTransport;
+import com.hachther.mesomb.http.RateLimiter;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class MeSomb {
     /** The MeSomb API key to be used for requests. */
     public static String apiKey;
@@ -26,21 +36,83 @@ public class MeSomb {
     /** Algorithm to used for signature */
     public static String algorithm = "HMAC-SHA1";
 
+    /** Clock giving the date of the requests, can be replaced for tests */
+    public static Clock clock = Clock.systemUTC();
+
+    /** Start nonces with a counter so that they are never repeated by this process */
+    public static boolean uniqueNonces = false;
+
+    /**
+     * Decode the date and nested objects of listed transactions and contributions only when their getter is called.
+     *
+     * <b>Warning:</b> in this mode the public fields date, location, customer, products and contributor of the
+     * transactions and contributions listed stay null until the matching getter (getDate(), getLocation(),
+     * getCustomer(), getProducts(), getContributor()) is called. The same goes for the deprecated amount, fees and
+     * trxamount fields, which are only boxed by getAmount(), getFees() and getTrxamount(). Code reading these fields
+     * directly must switch to the getters before enabling it.
+     */
+    public static boolean lazyModels = false;
+
     /** Maximum number of request retries */
     public static int maxNetworkRetries = 0;
 
-    /** Initial delay between retries, in seconds */
+    /** Read timeout of requests, in seconds */
     public static int requestTimeout = 30;
 
+    /** Connect timeout of requests, in seconds */
+    public static int connectTimeout = 10;
+
+    /** Write timeout of requests, in seconds */
+    public static int writeTimeout = 10;
+
+    /** Time budget of an operation, retries included, in seconds. 0 for no limit */
+    public static int callTimeout = 0;
+
+    /** Time budgets overriding callTimeout for some endpoints, in seconds, keyed like "payment/collect/" or "wallet/wallets/{id}/" */
+    public static Map<String, Integer> callTimeouts = new ConcurrentHashMap<>();
+
+    /** Maximum number of idle connections kept in the shared connection pool */
+    public static int maxIdleConnections = 5;
+
+    /** How long an idle connection is kept alive in the shared connection pool, in seconds */
+    public static int keepAliveDuration = 300;
+
+    /** Maximum number of asynchronous requests in flight on the shared transport, extra ones are queued */
+    public static int maxAsyncRequests = 256;
+
+    /** Run the tasks of {@link com.hachther.mesomb.http.RequestExecutor} on virtual threads (JDK 21+) instead of a platform pool */
+    public static boolean useVirtualThreads = false;
+
+    /** Number of platform threads of {@link com.hachther.mesomb.http.RequestExecutor} when virtual threads are not used */
+    public static int fallbackPoolSize = 64;
+
+    /** Circuit breaker applied per service and target, null to disable it */
+    public static CircuitBreaker circuitBreaker = null;
+
+    /** Client side rate limiter applied per service and target, null to disable it */
+    public static RateLimiter rateLimiter = null;
+
+    /** Hedging applied to GET requests, null to disable it */
+    public static HedgingPolicy hedgingPolicy = null;
+
+    /** Adaptive limit of the requests in flight per endpoint, null to disable it */
+    public static ConcurrencyLimiter concurrencyLimiter = null;
+
+    /** Transport used by the operations created without their own, null to use the shared OkHttpTransport */
+    public static HttpTransport transport = null;
+
+    /** Size in bytes from which request bodies are sent gzip compressed, -1 to never compress them */
+    public static int requestCompressionThreshold = -1;
+
     /** Whether client telemetry is enabled. Defaults to true. */
     public static boolean enableTelemetry = true;
 
     /** Maximum delay between retries, in seconds */
-    private static double maxNetworkRetryDelay = 2.0;
+    public static double maxNetworkRetryDelay = 2.0;
 
     /** Maximum delay between retries, in seconds, that will be respected from the MeSomb API */
-    private static double maxRetryAfter = 60.0;
+    public static double maxRetryAfter = 60.0;
 
     /** Initial delay between retries, in seconds */
-    private static double initialNetworkRetryDelay = 0.5;
+    public static double initialNetworkRetryDelay = 0.5;
 }
@@ -6,13 +6,20 @@ import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -23,6 +30,20 @@ import javax.crypto.spec.SecretKeySpec;
  * This signature generated will be added at the "Authorisation" header for each request
  */
 public class Signature {
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEX_BUFFER_SIZE = 64;
+    private static final int HEX_BUFFER_SLOTS = 16;
+    private static final int MAX_CACHED_SCOPES = 16;
+
+    // Mac and MessageDigest are not thread safe and costly to look up, instances are pooled rather than kept per
+    // thread so that virtual threads reuse them too
+    private static final Queue<MessageDigest> DIGESTS = new ConcurrentLinkedQueue<>();
+    // scratch buffers of bytesToHex, taken and given back without allocating
+    private static final AtomicReferenceArray<byte[]> HEX_BUFFERS = new AtomicReferenceArray<>(HEX_BUFFER_SLOTS);
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    // current scope of each service, the API only has a few of them
+    private static final ConcurrentMap<String, Scope> SCOPES = new ConcurrentHashMap<>();
 
     /**
      * Convert array of by to hexadecimal varchar
@@ -30,14 +51,23 @@ public class Signature {
      * @return
      */
     public static String bytesToHex(byte[] bytes) {
-        final char[] hexArray = "0123456789abcdef".toCharArray();
-        char[] hexChars = new char[bytes.length * 2];
+        int length = bytes.length * 2;
+        int slot = (int) Thread.currentThread().getId() & (HEX_BUFFER_SLOTS - 1);
+        byte[] hex = length <= HEX_BUFFER_SIZE ? HEX_BUFFERS.getAndSet(slot, null) : null;
+        if (hex == null) {
+            hex = new byte[Math.max(length, HEX_BUFFER_SIZE)];
+        }
         for (int j = 0, v; j < bytes.length; j++) {
             v = bytes[j] & 0xFF;
-            hexChars[j * 2] = hexArray[v >>> 4];
-            hexChars[j * 2 + 1] = hexArray[v & 0x0F];
+            hex[j * 2] = HEX_DIGITS[v >>> 4];
+            hex[j * 2 + 1] = HEX_DIGITS[v & 0x0F];
         }
-        return new String(hexChars);
+        // Latin-1 is the internal encoding of compact strings, no conversion needed
+        String result = new String(hex, 0, length, StandardCharsets.ISO_8859_1);
+        if (hex.length == HEX_BUFFER_SIZE) {
+            HEX_BUFFERS.lazySet(slot, hex);
+        }
+        return result;
     }
 
     /**
@@ -47,15 +77,48 @@ public class Signature {
      * @throws NoSuchAlgorithmException
      */
     public static String sha1(String input) throws NoSuchAlgorithmException {
-        MessageDigest md = MessageDigest.getInstance("SHA-1");
+        return sha1(input.getBytes(StandardCharsets.UTF_8));
+    }
 
-        return bytesToHex(md.digest(input.getBytes()));
+    /**
+     * Hash bytes with SHA1 algorithm
+     * @param input bytes to hash
+     * @return hashed string
+     * @throws NoSuchAlgorithmException
+     */
+    public static String sha1(byte[] input) throws NoSuchAlgorithmException {
+        MessageDigest md = DIGESTS.poll();
+        if (md == null) {
+            md = MessageDigest.getInstance("SHA-1");
+        }
+        try {
+            return bytesToHex(md.digest(input));
+        } finally {
+            DIGESTS.offer(md);
+        }
     }
 
+    /**
+     * Hash a string with HMAC-SHA1 algorithm. A Mac is initialized on each call, keep a {@link SigningKey} to reuse it.
+     * @param key secret key
+     * @param input string to hash
+     * @return hashed string
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeyException
+     */
     public static String hmacSha1(String key, String input) throws NoSuchAlgorithmException, InvalidKeyException {
-        final Mac mac = Mac.getInstance("HmacSHA1");
-        mac.init(new SecretKeySpec(key.getBytes(), "HmacSHA1"));
-        return bytesToHex(mac.doFinal(input.getBytes()));
+        return new SigningKey(key).hmacSha1(input);
+    }
+
+    /**
+     * Serialize a request body to the JSON bytes that are both signed and sent. Slashes are not escaped, as expected
+     * by the server when it checks the payload hash.
+     *
+     * @param body body of the request
+     * @return the UTF-8 encoded JSON
+     */
+    public static byte[] serializeBody(Map<String, Object> body) {
+        return JSONObject.toJSONString(body).replace("\\/", "/").getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -74,7 +137,27 @@ public class Signature {
      * @throws InvalidKeyException
      */
     public static String signRequest(String service, String method, String url, Date date, String nonce, Map<String, String> credentials, TreeMap<String, String> headers, Map<String, Object> body) throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
-        String algorithm = MeSomb.algorithm;
+        return signEncodedRequest(service, method, url, date, nonce, credentials, headers, body != null ? serializeBody(body) : null);
+    }
+
+    /**
+     * Same as {@link #signRequest(String, String, String, Date, String, Map, TreeMap, Map)} for a body already
+     * serialized, so that the exact bytes sent are signed
+     *
+     * @param service name of the mesomb service (Expl: payment)
+     * @param method HTTP method
+     * @param url the url of the HTTP Request
+     * @param date the datetime of the transaction
+     * @param nonce random generated string that should be unique on each POST request
+     * @param credentials MeSomb credential (accessKey and the secretKey)
+     * @param headers HTTP headers of the request
+     * @param body body of the request as sent, see {@link #serializeBody(Map)}
+     * @return
+     * @throws MalformedURLException
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeyException
+     */
+    public static String signEncodedRequest(String service, String method, String url, Date date, String nonce, Map<String, String> credentials, TreeMap<String, String> headers, byte[] body) throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
         URL parse = new URL(url);
         String canonicalQuery = parse.getQuery() != null ? parse.getQuery() : "";
 
@@ -98,7 +181,7 @@ public class Signature {
         }
         String canonicalHeaders = String.join("\n", headersTokens);
 
-        String payloadHash = sha1(body != null ? JSONObject.toJSONString(body) .replace("\\/", "/"): "{}");
+        String payloadHash = body != null ? sha1(body) : sha1("{}");
 
         String signedHeaders = String.join(";", headersKeys);
 
@@ -111,15 +194,133 @@ public class Signature {
 
         String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery + "\n" + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
+        return sign(service, date, timestamp, canonicalRequest, signedHeaders, credentials.get("accessKey"), new SigningKey(credentials.get("secretKey")));
+    }
+
+    /**
+     * Sign a request to a precompiled endpoint. Only the content-type (for requests with a body), host, date and nonce
+     * headers are signed.
+     *
+     * @param service name of the mesomb service (Expl: payment)
+     * @param method HTTP method
+     * @param endpoint the template of the endpoint called
+     * @param query the query of the request, empty for none
+     * @param date the datetime of the transaction
+     * @param nonce random generated string that should be unique on each POST request
+     * @param accessKey MeSomb access key
+     * @param secretKey MeSomb secret key
+     * @param body body of the request as sent, see {@link #serializeBody(Map)}
+     * @return
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeyException
+     */
+    public static String signRequest(String service, String method, EndpointTemplate endpoint, String query, Date date, String nonce, String accessKey, String secretKey, byte[] body) throws NoSuchAlgorithmException, InvalidKeyException {
+        return signRequest(service, method, endpoint, query, date, nonce, accessKey, new SigningKey(secretKey), body);
+    }
+
+    /**
+     * Same as {@link #signRequest(String, String, EndpointTemplate, String, Date, String, String, String, byte[])}
+     * with the signing key of the client, which reuses its Mac instances across requests
+     *
+     * @param service name of the mesomb service (Expl: payment)
+     * @param method HTTP method
+     * @param endpoint the template of the endpoint called
+     * @param query the query of the request, empty for none
+     * @param date the datetime of the transaction
+     * @param nonce random generated string that should be unique on each POST request
+     * @param accessKey MeSomb access key
+     * @param secretKey signing key of the MeSomb secret key
+     * @param body body of the request as sent, see {@link #serializeBody(Map)}
+     * @return
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeyException
+     */
+    public static String signRequest(String service, String method, EndpointTemplate endpoint, String query, Date date, String nonce, String accessKey, SigningKey secretKey, byte[] body) throws NoSuchAlgorithmException, InvalidKeyException {
+        long timestamp = date.getTime() / 1000;
+        String payloadHash = body != null ? sha1(body) : sha1("{}");
+
+        String canonicalRequest = method + "\n" + endpoint.getPath() + "\n" + query + "\n" + endpoint.getCanonicalHeaders()
+                + "x-mesomb-date:" + timestamp + "\nx-mesomb-nonce:" + nonce + "\n" + endpoint.getSignedHeaders() + "\n" + payloadHash;
 
+        return sign(service, date, timestamp, canonicalRequest, endpoint.getSignedHeaders(), accessKey, secretKey);
+    }
 
-        String scope = dateFormat.format(date) + "/" + service + "/mesomb_request";
+    /**
+     * Get the credential scope of a request, yyyyMMdd/service/mesomb_request for the UTC day of the request. The scope
+     * of each service is kept until the day changes.
+     *
+     * @param service name of the mesomb service (Expl: payment)
+     * @param millis time of the request, in milliseconds since the epoch
+     * @return the scope
+     */
+    static String getScope(String service, long millis) {
+        long day = Math.floorDiv(millis, MILLIS_PER_DAY);
+        Scope scope = SCOPES.get(service);
+        if (scope == null || scope.day != day) {
+            scope = new Scope(day, LocalDate.ofEpochDay(day).format(DateTimeFormatter.BASIC_ISO_DATE) + "/" + service + "/mesomb_request");
+            if (SCOPES.size() < MAX_CACHED_SCOPES || SCOPES.containsKey(service)) {
+                SCOPES.put(service, scope);
+            }
+        }
+        return scope.value;
+    }
+
+    private static String sign(String service, Date date, long timestamp, String canonicalRequest, String signedHeaders, String accessKey, SigningKey secretKey) throws NoSuchAlgorithmException, InvalidKeyException {
+        String algorithm = MeSomb.algorithm;
+
+        String scope = getScope(service, date.getTime());
 
         String stringToSign = algorithm + "\n" + timestamp + "\n" + scope + "\n" + sha1(canonicalRequest);
 
-        String signature = hmacSha1(credentials.get("secretKey"), stringToSign);
+        String signature = secretKey.hmacSha1(stringToSign);
+
+        return algorithm + " Credential=" + accessKey + "/" + scope + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    /**
+     * Secret key of a client with its pool of Mac instances, to be created once per client
+     */
+    public static final class SigningKey {
+        private final String secretKey;
+        private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @param secretKey MeSomb secret key
+         */
+        public SigningKey(String secretKey) {
+            this.secretKey = secretKey;
+        }
 
-        return algorithm + " Credential=" + credentials.get("accessKey") + "/" + scope + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+        /**
+         * Hash a string with HMAC-SHA1 algorithm
+         *
+         * @param input string to hash
+         * @return hashed string
+         * @throws NoSuchAlgorithmException
+         * @throws InvalidKeyException
+         */
+        public String hmacSha1(String input) throws NoSuchAlgorithmException, InvalidKeyException {
+            Mac mac = macs.poll();
+            if (mac == null) {
+                mac = Mac.getInstance("HmacSHA1");
+                mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+            }
+            try {
+                return bytesToHex(mac.doFinal(input.getBytes(StandardCharsets.UTF_8)));
+            } finally {
+                // doFinal leaves the Mac initialized with the same key
+                macs.offer(mac);
+            }
+        }
+    }
+
+    private static class Scope {
+        final long day;
+        final String value;
+
+        Scope(long day, String value) {
+            this.day = day;
+            this.value = value;
+        }
     }
 }
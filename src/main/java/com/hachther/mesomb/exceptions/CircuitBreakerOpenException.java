@@ -0,0 +1,10 @@
+package com.hachther.mesomb.exceptions;
+
+/**
+ * Raised without sending the request when the circuit breaker of the target is open
+ */
+public class CircuitBreakerOpenException extends ServerException {
+    public CircuitBreakerOpenException(String message) {
+        super(message, "circuit-breaker-open");
+    }
+}
@@ -0,0 +1,10 @@
+package com.hachther.mesomb.exceptions;
+
+/**
+ * Raised without sending the request when the client side rate limiter runs in fail-fast mode and has no budget left
+ */
+public class RateLimitExceededException extends ServerException {
+    public RateLimitExceededException(String message) {
+        super(message, "rate-limit-exceeded");
+    }
+}
@@ -0,0 +1,243 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.exceptions.CircuitBreakerOpenException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker keeping one circuit per service and target (application, provider or fund key).
+ *
+ * Each circuit records the outcome of the last slidingWindowSize calls. Once at least minimumNumberOfCalls have been
+ * recorded, the circuit opens if the failure rate or the slow call rate reaches its threshold. While open, calls
+ * fail immediately with a {@link CircuitBreakerOpenException}. After waitDurationInOpenState the circuit becomes
+ * half-open and lets permittedCallsInHalfOpenState trial calls through; depending on their outcome it closes again or
+ * reopens. Only these trial calls count while half-open, the outcome of a call sent before is ignored.
+ *
+ * A call is a failure when it raises an I/O error or receives a 5xx response; 4xx responses are successes from the
+ * circuit point of view.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDuration;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final long waitDurationInOpenState;
+    private final int permittedCallsInHalfOpenState;
+
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Create a circuit breaker opening at 50% of failures or 100% of calls slower than 10 seconds, over the last 20
+     * calls, and waiting 30 seconds before trying again.
+     */
+    public CircuitBreaker() {
+        this(50, 100, 10000, 20, 10, 30000, 3);
+    }
+
+    /**
+     * @param failureRateThreshold failure rate, in percent, from which the circuit opens
+     * @param slowCallRateThreshold slow call rate, in percent, from which the circuit opens
+     * @param slowCallDuration duration, in milliseconds, from which a call is considered slow
+     * @param slidingWindowSize number of calls used to compute the rates
+     * @param minimumNumberOfCalls number of calls to record before the rates are evaluated
+     * @param waitDurationInOpenState how long the circuit stays open, in milliseconds
+     * @param permittedCallsInHalfOpenState number of trial calls let through when half-open
+     */
+    public CircuitBreaker(double failureRateThreshold, double slowCallRateThreshold, long slowCallDuration, int slidingWindowSize, int minimumNumberOfCalls, long waitDurationInOpenState, int permittedCallsInHalfOpenState) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumNumberOfCalls = Math.min(minimumNumberOfCalls, slidingWindowSize);
+        this.waitDurationInOpenState = TimeUnit.MILLISECONDS.toNanos(waitDurationInOpenState);
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * Ask for the permission to send a call. Every permission granted must be followed by
+     * {@link #onResult(Permit, long, boolean)} or {@link #release(Permit)}.
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @return the permission
+     * @throws CircuitBreakerOpenException if the circuit is open
+     */
+    public Permit acquire(String service, String target) throws CircuitBreakerOpenException {
+        Permit permit = this.tryAcquire(service, target);
+        if (permit == null) {
+            throw new CircuitBreakerOpenException("Circuit breaker is open for " + service + " " + target);
+        }
+        return permit;
+    }
+
+    /**
+     * Ask for the permission to send a call, like {@link #acquire(String, String)} but without raising an exception
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @return the permission, null if the call is not permitted
+     */
+    public Permit tryAcquire(String service, String target) {
+        return this.circuit(service, target).tryAcquire();
+    }
+
+    /**
+     * Record the outcome of a call
+     *
+     * @param permit the permission of the call
+     * @param duration duration of the call, in nanoseconds
+     * @param failure whether the call failed
+     */
+    public void onResult(Permit permit, long duration, boolean failure) {
+        permit.circuit.record(permit.probe, failure, duration >= slowCallDuration);
+    }
+
+    /**
+     * Give back a permission without recording an outcome, when the call has been cancelled
+     *
+     * @param permit the permission of the call
+     */
+    public void release(Permit permit) {
+        permit.circuit.release(permit.probe);
+    }
+
+    /**
+     * Get the current state of a circuit
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @return the state
+     */
+    public State getState(String service, String target) {
+        return this.circuit(service, target).getState();
+    }
+
+    private Circuit circuit(String service, String target) {
+        return circuits.computeIfAbsent(service + ":" + target, key -> new Circuit());
+    }
+
+    /**
+     * Permission to send one call, given by {@link #acquire(String, String)}
+     */
+    public static final class Permit {
+        private final Circuit circuit;
+        // half-open period in which the call is a trial, 0 for a call sent while closed
+        private final long probe;
+
+        private Permit(Circuit circuit, long probe) {
+            this.circuit = circuit;
+            this.probe = probe;
+        }
+    }
+
+    private class Circuit {
+        private State state = State.CLOSED;
+        private final boolean[] failures = new boolean[slidingWindowSize];
+        private final boolean[] slows = new boolean[slidingWindowSize];
+        private int index = 0;
+        private int calls = 0;
+        private int failureCount = 0;
+        private int slowCount = 0;
+        private long openedAt;
+        private int halfOpenInFlight = 0;
+        // incremented each time the circuit becomes half-open
+        private long halfOpenPeriod = 0;
+        private final Permit closedPermit = new Permit(this, 0);
+
+        synchronized Permit tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < waitDurationInOpenState) {
+                    return null;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPeriod++;
+                this.reset();
+            }
+            if (state == State.HALF_OPEN) {
+                if (calls + halfOpenInFlight >= permittedCallsInHalfOpenState) {
+                    return null;
+                }
+                halfOpenInFlight++;
+                return new Permit(this, halfOpenPeriod);
+            }
+            return closedPermit;
+        }
+
+        synchronized void release(long probe) {
+            if (this.isTrial(probe)) {
+                halfOpenInFlight--;
+            }
+        }
+
+        synchronized void record(long probe, boolean failure, boolean slow) {
+            if (state == State.OPEN) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (!this.isTrial(probe)) {
+                    // sent before the circuit became half-open
+                    return;
+                }
+                halfOpenInFlight--;
+            }
+            if (calls == slidingWindowSize) {
+                failureCount -= failures[index] ? 1 : 0;
+                slowCount -= slows[index] ? 1 : 0;
+            } else {
+                calls++;
+            }
+            failures[index] = failure;
+            slows[index] = slow;
+            failureCount += failure ? 1 : 0;
+            slowCount += slow ? 1 : 0;
+            index = (index + 1) % slidingWindowSize;
+
+            if (state == State.HALF_OPEN) {
+                if (calls >= permittedCallsInHalfOpenState) {
+                    if (this.isAboveThresholds()) {
+                        this.open();
+                    } else {
+                        state = State.CLOSED;
+                        this.reset();
+                    }
+                }
+            } else if (calls >= minimumNumberOfCalls && this.isAboveThresholds()) {
+                this.open();
+            }
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        private boolean isTrial(long probe) {
+            return state == State.HALF_OPEN && probe == halfOpenPeriod;
+        }
+
+        private boolean isAboveThresholds() {
+            return failureCount * 100.0 / calls >= failureRateThreshold || slowCount * 100.0 / calls >= slowCallRateThreshold;
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+
+        private void reset() {
+            index = 0;
+            calls = 0;
+            failureCount = 0;
+            slowCount = 0;
+            halfOpenInFlight = 0;
+        }
+    }
+}
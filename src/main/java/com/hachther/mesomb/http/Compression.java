@@ -0,0 +1,107 @@
+package com.hachther.mesomb.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content encodings supported on request and response bodies
+ */
+public class Compression {
+    /** Value of the Accept-Encoding header sent by the transports */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Compress a body with gzip
+     *
+     * @param body the body
+     * @return the compressed body
+     */
+    public static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Wrap a response body so that it is decompressed while read
+     *
+     * @param contentEncoding the Content-Encoding header of the response, may be null
+     * @param body the body as received
+     * @return the decoded body
+     * @throws IOException if the encoding is not supported or the body is not valid
+     */
+    public static InputStream decode(String contentEncoding, InputStream body) throws IOException {
+        if (contentEncoding == null || contentEncoding.isEmpty()) {
+            return body;
+        }
+        String[] encodings = contentEncoding.split(",");
+        // encodings are listed in the order they were applied
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            String encoding = encodings[i].trim();
+            if (encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("x-gzip")) {
+                body = gunzip(body);
+            } else if (encoding.equalsIgnoreCase("deflate")) {
+                body = inflate(body);
+            } else if (!encoding.isEmpty() && !encoding.equalsIgnoreCase("identity")) {
+                body.close();
+                throw new IOException("Unsupported content encoding: " + encoding);
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Decode a gzip body. Empty bodies, e.g. of HEAD or 204 responses, are returned as is since GZIPInputStream needs
+     * a header.
+     */
+    private static InputStream gunzip(InputStream body) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(body, 1);
+        int first = input.read();
+        if (first == -1) {
+            return input;
+        }
+        input.unread(first);
+        return new GZIPInputStream(input);
+    }
+
+    /**
+     * Decode a deflate body. It should be zlib wrapped but some servers send raw deflate data, the header tells them
+     * apart.
+     */
+    private static InputStream inflate(InputStream body) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(body, 2);
+        int cmf = input.read();
+        if (cmf == -1) {
+            return input;
+        }
+        int flg = input.read();
+        if (flg != -1) {
+            input.unread(flg);
+        }
+        input.unread(cmf);
+        boolean zlib = (cmf & 0x0f) == 8 && flg != -1 && (cmf * 256 + flg) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(input, inflater) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // only the inflaters it creates itself are released by InflaterInputStream
+                    inflater.end();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.hachther.mesomb.http;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit of the number of requests in flight per endpoint.
+ *
+ * The limit follows an AIMD algorithm driven by the round trip time and the errors of each endpoint: every successful
+ * call raises it by 1/limit (about one more slot per round trip), while an error, a 5xx/429 response or a round trip
+ * slower than rttTolerance times the minimum observed one multiplies it by backoffRatio. Requests above the limit wait
+ * in a FIFO queue until a slot is released.
+ */
+public class ConcurrencyLimiter {
+    private static final int MIN_RTT_RESET = 500;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+
+    private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Create a limiter starting at 20 concurrent requests per endpoint, between 1 and 200
+     */
+    public ConcurrencyLimiter() {
+        this(20, 1, 200, 0.9, 2.0);
+    }
+
+    /**
+     * @param initialLimit initial number of concurrent requests per endpoint
+     * @param minLimit the limit never goes below this value
+     * @param maxLimit the limit never goes above this value
+     * @param backoffRatio factor applied to the limit on congestion, between 0 and 1
+     * @param rttTolerance round trip time, relative to the minimum observed, from which the endpoint is congested
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double rttTolerance) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+    }
+
+    /**
+     * Wait for a slot. Every slot acquired must be given back with {@link #release(String, long, boolean)} or
+     * {@link #release(String)}.
+     *
+     * @param endpoint the endpoint
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void acquire(String endpoint) throws InterruptedIOException {
+        this.acquire(endpoint, -1);
+    }
+
+    /**
+     * Wait for a slot at most for the given time. Every slot acquired must be given back with
+     * {@link #release(String, long, boolean)} or {@link #release(String)}.
+     *
+     * @param endpoint the endpoint
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @throws InterruptedIOException if interrupted or if no slot is available in time
+     */
+    public void acquire(String endpoint, long timeout, TimeUnit unit) throws InterruptedIOException {
+        this.acquire(endpoint, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * @param timeout the maximum time to wait in nanoseconds, negative to wait without limit
+     */
+    private void acquire(String endpoint, long timeout) throws InterruptedIOException {
+        CompletableFuture<Void> granted = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (!granted.complete(null)) {
+                // the caller gave up waiting
+                this.release(endpoint);
+            }
+        };
+        this.acquireAsync(endpoint, task);
+        try {
+            if (timeout < 0) {
+                granted.get();
+            } else {
+                granted.get(timeout, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            if (!this.cancel(endpoint, task, granted)) {
+                this.release(endpoint);
+            }
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for a concurrency slot");
+            exception.initCause(e);
+            throw exception;
+        } catch (TimeoutException e) {
+            if (this.cancel(endpoint, task, granted)) {
+                throw new InterruptedIOException("Timed out waiting for a concurrency slot");
+            }
+            // the slot was granted in the meantime
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Give up waiting for a slot
+     *
+     * @return false if the slot was granted before, it must then be released
+     */
+    private boolean cancel(String endpoint, Runnable task, CompletableFuture<Void> granted) {
+        Limit limit = this.limit(endpoint);
+        limit.lock.lock();
+        try {
+            limit.waiters.remove(task);
+        } finally {
+            limit.lock.unlock();
+        }
+        return granted.cancel(false);
+    }
+
+    /**
+     * Take a slot only if one is available right away and nobody is waiting for one
+     *
+     * @param endpoint the endpoint
+     * @return true if a slot has been taken
+     */
+    public boolean tryAcquire(String endpoint) {
+        Limit limit = this.limit(endpoint);
+        limit.lock.lock();
+        try {
+            if (limit.waiters.isEmpty() && limit.inFlight < (int) limit.limit) {
+                limit.inFlight++;
+                return true;
+            }
+            return false;
+        } finally {
+            limit.lock.unlock();
+        }
+    }
+
+    /**
+     * Run the task as soon as a slot is available, without blocking the caller
+     *
+     * @param endpoint the endpoint
+     * @param task the task to run once the slot is acquired
+     */
+    public void acquireAsync(String endpoint, Runnable task) {
+        Limit limit = this.limit(endpoint);
+        boolean acquired;
+        limit.lock.lock();
+        try {
+            acquired = limit.waiters.isEmpty() && limit.inFlight < (int) limit.limit;
+            if (acquired) {
+                limit.inFlight++;
+            } else {
+                limit.waiters.add(task);
+            }
+        } finally {
+            limit.lock.unlock();
+        }
+        if (acquired) {
+            task.run();
+        }
+    }
+
+    /**
+     * Give back a slot and adjust the limit with the outcome of the call
+     *
+     * @param endpoint the endpoint
+     * @param rtt round trip time of the call, in nanoseconds
+     * @param dropped whether the call failed or was rejected by the server
+     */
+    public void release(String endpoint, long rtt, boolean dropped) {
+        Limit limit = this.limit(endpoint);
+        List<Runnable> ready;
+        limit.lock.lock();
+        try {
+            limit.inFlight--;
+            limit.samples++;
+            if (limit.samples % MIN_RTT_RESET == 0) {
+                // let the baseline follow the server if it became durably slower
+                limit.minRtt = 0;
+            }
+            if (limit.minRtt == 0 || rtt < limit.minRtt) {
+                limit.minRtt = rtt;
+            }
+            if (dropped || rtt > limit.minRtt * rttTolerance) {
+                limit.limit = Math.max(minLimit, limit.limit * backoffRatio);
+            } else {
+                limit.limit = Math.min(maxLimit, limit.limit + 1 / limit.limit);
+            }
+            ready = limit.poll();
+        } finally {
+            limit.lock.unlock();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    /**
+     * Give back a slot without adjusting the limit, when the call has been cancelled
+     *
+     * @param endpoint the endpoint
+     */
+    public void release(String endpoint) {
+        Limit limit = this.limit(endpoint);
+        List<Runnable> ready;
+        limit.lock.lock();
+        try {
+            limit.inFlight--;
+            ready = limit.poll();
+        } finally {
+            limit.lock.unlock();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    /**
+     * Get the current limit of an endpoint
+     *
+     * @param endpoint the endpoint
+     * @return the number of requests allowed in flight
+     */
+    public int getLimit(String endpoint) {
+        Limit limit = this.limit(endpoint);
+        limit.lock.lock();
+        try {
+            return (int) limit.limit;
+        } finally {
+            limit.lock.unlock();
+        }
+    }
+
+    private Limit limit(String endpoint) {
+        return limits.computeIfAbsent(endpoint, key -> new Limit(initialLimit));
+    }
+
+    private static class Limit {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<Runnable> waiters = new ArrayDeque<>();
+        private double limit;
+        private int inFlight = 0;
+        private long minRtt = 0;
+        private long samples = 0;
+
+        Limit(double limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Take the waiters which fit under the limit. Must be called with the lock held; the returned tasks are run
+         * once it is released.
+         */
+        List<Runnable> poll() {
+            List<Runnable> ready = new ArrayList<>();
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                ready.add(waiters.poll());
+            }
+            return ready;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.hachther.mesomb.http;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which an operation must not be running anymore, retries included.
+ *
+ * A caller bounds every operation it starts on the current thread by entering a deadline:
+ * <pre>
+ * try (Deadline.Scope ignored = Deadline.after(2, TimeUnit.SECONDS).enter()) {
+ *     payment.getStatus();
+ * }
+ * </pre>
+ * Asynchronous operations take the deadline in effect when they are started.
+ */
+public class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAt;
+
+    private Deadline(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Create a deadline relative to now
+     *
+     * @param timeout the time left
+     * @param unit the unit of the timeout
+     * @return the deadline
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Create a deadline at a given instant, as received from an upstream caller for example
+     *
+     * @param instant the instant
+     * @return the deadline
+     */
+    public static Deadline at(Instant instant) {
+        return new Deadline(System.nanoTime() + Duration.between(Instant.now(), instant).toNanos());
+    }
+
+    /**
+     * Get the deadline entered on the current thread
+     *
+     * @return the deadline or null if there is none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Apply this deadline to the operations started on the current thread until the scope is closed. A deadline
+     * already in effect is kept if it is earlier.
+     *
+     * @return the scope to close
+     */
+    public Scope enter() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(previous != null ? previous.min(this) : this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Get the earliest of two deadlines
+     *
+     * @param other the other deadline, may be null
+     * @return the earliest one
+     */
+    public Deadline min(Deadline other) {
+        return other == null || expiresAt - other.expiresAt <= 0 ? this : other;
+    }
+
+    /**
+     * @return the time left in nanoseconds, 0 or less once expired
+     */
+    public long remainingNanos() {
+        return expiresAt - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return this.remainingNanos() <= 0;
+    }
+
+    /**
+     * Check that the deadline has not expired yet
+     *
+     * @throws InterruptedIOException if it has
+     */
+    public void check() throws InterruptedIOException {
+        if (this.isExpired()) {
+            throw new InterruptedIOException("Deadline exceeded");
+        }
+    }
+
+    /**
+     * Restores the previous deadline of the thread when closed
+     */
+    public static class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
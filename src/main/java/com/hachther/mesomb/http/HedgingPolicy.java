@@ -0,0 +1,87 @@
+package com.hachther.mesomb.http;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedging of idempotent reads: when a GET has not answered after the hedging delay, the same request is sent a second
+ * time and the first response wins, the other call being cancelled.
+ *
+ * The delay is either fixed or, in adaptive mode, the observed latency percentile (p95 by default) of the endpoint
+ * computed over its last 128 calls. The fixed delay is used until enough calls have been observed.
+ */
+public class HedgingPolicy {
+    private static final int SAMPLES = 128;
+    private static final int MIN_SAMPLES = 20;
+
+    private final long delay;
+    private final double percentile;
+    private final ConcurrentMap<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Hedge after a fixed delay
+     *
+     * @param delay delay before sending the duplicate request, in milliseconds
+     */
+    public HedgingPolicy(long delay) {
+        this(delay, 0);
+    }
+
+    /**
+     * Hedge after the observed latency percentile of the endpoint
+     *
+     * @param delay delay used until enough latencies have been observed, in milliseconds
+     * @param percentile latency percentile to use (for example 95), 0 to always use the fixed delay
+     */
+    public HedgingPolicy(long delay, double percentile) {
+        this.delay = delay;
+        this.percentile = percentile;
+    }
+
+    /**
+     * Get how long to wait before sending the duplicate request
+     *
+     * @param endpoint path of the endpoint, with its numeric identifiers replaced by {id}
+     * @return the delay in milliseconds
+     */
+    public long getDelayMillis(String endpoint) {
+        if (percentile <= 0) {
+            return delay;
+        }
+        Latencies endpointLatencies = latencies.get(endpoint);
+        long observed = endpointLatencies != null ? endpointLatencies.percentile : -1;
+        return observed >= 0 ? TimeUnit.NANOSECONDS.toMillis(observed) : delay;
+    }
+
+    /**
+     * Record the latency of a response
+     *
+     * @param endpoint path of the endpoint, with its numeric identifiers replaced by {id}
+     * @param duration duration of the call, in nanoseconds
+     */
+    public void record(String endpoint, long duration) {
+        if (percentile > 0) {
+            latencies.computeIfAbsent(endpoint, key -> new Latencies()).add(duration, percentile);
+        }
+    }
+
+    private static class Latencies {
+        private final long[] samples = new long[SAMPLES];
+        private int count = 0;
+        private volatile long percentile = -1;
+
+        synchronized void add(long duration, double rank) {
+            samples[count % SAMPLES] = duration;
+            count++;
+            // recomputing on every call is not worth it, the percentile moves slowly
+            if (count >= MIN_SAMPLES && count % 16 == 4) {
+                long[] sorted = Arrays.copyOf(samples, Math.min(count, SAMPLES));
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(rank / 100 * sorted.length) - 1;
+                percentile = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+            }
+        }
+    }
+}
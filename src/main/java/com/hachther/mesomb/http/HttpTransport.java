@@ -0,0 +1,36 @@
+package com.hachther.mesomb.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the signed requests built by the operations.
+ *
+ * {@link OkHttpTransport} is used by default; {@code JdkHttpTransport} relies on the HTTP client of the JDK 11+ instead.
+ * Implementations must be thread safe, a single instance is shared by every operation using it.
+ */
+public interface HttpTransport extends Closeable {
+    /**
+     * Send the request and wait for the response headers
+     *
+     * @param request the request to send
+     * @return the response, to be closed by the caller
+     * @throws IOException if the request fails
+     */
+    TransportResponse execute(TransportRequest request) throws IOException;
+
+    /**
+     * Send the request without blocking. Cancelling the returned future cancels the call.
+     *
+     * @param request the request to send
+     * @return a future completed with the response, to be closed by the caller, or with the I/O error
+     */
+    CompletableFuture<TransportResponse> executeAsync(TransportRequest request);
+
+    /**
+     * Release the threads and connections held by this transport
+     */
+    @Override
+    void close();
+}
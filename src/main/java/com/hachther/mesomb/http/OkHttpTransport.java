@@ -0,0 +1,201 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.MeSomb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Long-lived HTTP transport shared by the operations.
+ *
+ * It owns a single OkHttpClient (and so a single connection pool and dispatcher) that is reused across all
+ * requests, which lets connections be kept alive between calls instead of paying a TCP connect and TLS handshake
+ * each time.
+ */
+public class OkHttpTransport implements HttpTransport {
+    private static volatile OkHttpTransport defaultTransport;
+
+    private final OkHttpClient client;
+
+    /**
+     * Create a transport using the pool settings defined on {@link MeSomb}
+     */
+    public OkHttpTransport() {
+        this(MeSomb.maxIdleConnections, MeSomb.keepAliveDuration, MeSomb.maxAsyncRequests);
+    }
+
+    /**
+     * Create a transport with its own connection pool
+     *
+     * @param maxIdleConnections maximum number of idle connections to keep in the pool
+     * @param keepAliveDuration how long an idle connection is kept in the pool, in seconds
+     */
+    public OkHttpTransport(int maxIdleConnections, long keepAliveDuration) {
+        this(maxIdleConnections, keepAliveDuration, MeSomb.maxAsyncRequests);
+    }
+
+    /**
+     * Create a transport with its own connection pool and dispatcher
+     *
+     * @param maxIdleConnections maximum number of idle connections to keep in the pool
+     * @param keepAliveDuration how long an idle connection is kept in the pool, in seconds
+     * @param maxAsyncRequests maximum number of asynchronous calls running at the same time, extra ones are queued
+     */
+    public OkHttpTransport(int maxIdleConnections, long keepAliveDuration, int maxAsyncRequests) {
+        this(new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.SECONDS))
+                .dispatcher(newDispatcher(maxAsyncRequests))
+                .connectTimeout(MeSomb.connectTimeout, TimeUnit.SECONDS)
+                .writeTimeout(MeSomb.writeTimeout, TimeUnit.SECONDS)
+                .readTimeout(MeSomb.requestTimeout, TimeUnit.SECONDS)
+                .build());
+    }
+
+    /**
+     * Create a transport on top of an existing client
+     *
+     * @param client the OkHttpClient to use
+     */
+    public OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+
+    private static Dispatcher newDispatcher(int maxAsyncRequests) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxAsyncRequests);
+        // every call goes to the MeSomb host, so the per host limit is the effective one
+        dispatcher.setMaxRequestsPerHost(maxAsyncRequests);
+        return dispatcher;
+    }
+
+    /**
+     * Get the transport shared by all operations which have not been given their own
+     *
+     * @return the default transport
+     */
+    public static OkHttpTransport getDefault() {
+        OkHttpTransport transport = defaultTransport;
+        if (transport == null) {
+            synchronized (OkHttpTransport.class) {
+                transport = defaultTransport;
+                if (transport == null) {
+                    transport = new OkHttpTransport();
+                    defaultTransport = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Replace the default transport. The previous one is not closed.
+     *
+     * @param transport the new default transport, null to recreate one from {@link MeSomb} settings on next use
+     */
+    public static void setDefault(OkHttpTransport transport) {
+        defaultTransport = transport;
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Prepare a call on the shared client.
+     *
+     * If {@link MeSomb#requestTimeout}, {@link MeSomb#connectTimeout} or {@link MeSomb#writeTimeout} has changed since
+     * the client was built, a derived client is used for this call; it still shares the connection pool and
+     * dispatcher.
+     *
+     * @param request the request to send
+     * @return the call ready to be executed
+     */
+    public Call newCall(Request request) {
+        OkHttpClient client = this.client;
+        if (client.readTimeoutMillis() != MeSomb.requestTimeout * 1000 || client.connectTimeoutMillis() != MeSomb.connectTimeout * 1000
+                || client.writeTimeoutMillis() != MeSomb.writeTimeout * 1000) {
+            client = client.newBuilder()
+                    .connectTimeout(MeSomb.connectTimeout, TimeUnit.SECONDS)
+                    .writeTimeout(MeSomb.writeTimeout, TimeUnit.SECONDS)
+                    .readTimeout(MeSomb.requestTimeout, TimeUnit.SECONDS)
+                    .build();
+        }
+        return client.newCall(request);
+    }
+
+    private Call newCall(TransportRequest request) {
+        Call call = this.newCall(toRequest(request));
+        if (request.getTimeout() != null) {
+            call.timeout().timeout(Math.max(1, request.getTimeout().toNanos()), TimeUnit.NANOSECONDS);
+        }
+        return call;
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        return toResponse(this.newCall(request).execute());
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        Call call = this.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!future.complete(toResponse(response))) {
+                    response.close();
+                }
+            }
+        });
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private static Request toRequest(TransportRequest request) {
+        Request.Builder builder = new Request.Builder().url(request.getUri().toString());
+        request.getHeaders().forEach(builder::addHeader);
+        if (request.getHeader("Accept-Encoding") == null) {
+            // OkHttp only asks for gzip by itself, the body is then decoded by TransportResponse
+            builder.addHeader("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        }
+        byte[] body = request.getBody();
+        return builder.method(request.getMethod(), body != null ? RequestBody.create(body, MediaType.get(request.getContentType())) : null)
+                .build();
+    }
+
+    private static TransportResponse toResponse(Response response) {
+        ResponseBody body = response.body();
+        InputStream stream = body != null ? body.byteStream() : new ByteArrayInputStream(new byte[0]);
+        return new TransportResponse(response.code(), response.headers().toMultimap(), stream);
+    }
+
+    @Override
+    public void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+}
@@ -0,0 +1,173 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.exceptions.RateLimitExceededException;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client side rate limiter keeping one token bucket per service and target (application, provider or fund key).
+ *
+ * Requests moving money (POST, PUT, DELETE) and read-only requests (GET) have separate budgets. Each budget is a rate
+ * of requests per second plus a burst size. Buckets are lock free: each one is a single atomic "theoretical arrival
+ * time" updated with compare-and-set (GCRA).
+ *
+ * In blocking mode a request without budget waits for its turn, unless its turn comes after its deadline; in fail-fast
+ * mode it raises a {@link RateLimitExceededException} immediately.
+ */
+public class RateLimiter {
+    private final double writeRate;
+    private final int writeBurst;
+    private final double readRate;
+    private final int readBurst;
+    private final boolean failFast;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param writeRate number of money moving requests per second
+     * @param writeBurst number of money moving requests which can be sent at once
+     * @param readRate number of read-only requests per second
+     * @param readBurst number of read-only requests which can be sent at once
+     * @param failFast raise an exception instead of waiting when there is no budget left
+     */
+    public RateLimiter(double writeRate, int writeBurst, double readRate, int readBurst, boolean failFast) {
+        this.writeRate = writeRate;
+        this.writeBurst = writeBurst;
+        this.readRate = readRate;
+        this.readBurst = readBurst;
+        this.failFast = failFast;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Take a token, waiting for it in blocking mode
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @param method HTTP method of the request
+     * @throws RateLimitExceededException if there is no token left in fail-fast mode
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void acquire(String service, String target, String method) throws RateLimitExceededException, InterruptedIOException {
+        this.acquire(service, target, method, null);
+    }
+
+    /**
+     * Take a token, waiting for it in blocking mode as long as it is available before the deadline
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @param method HTTP method of the request
+     * @param deadline the deadline of the request, or null
+     * @throws RateLimitExceededException if there is no token left in fail-fast mode
+     * @throws InterruptedIOException if interrupted while waiting or if the token is not available before the deadline,
+     * no token is taken then
+     */
+    public void acquire(String service, String target, String method, Deadline deadline) throws RateLimitExceededException, InterruptedIOException {
+        long wait = this.reserve(service, target, method, deadline);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for the rate limiter");
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Take a token without blocking
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @param method HTTP method of the request
+     * @return how long to wait, in nanoseconds, before sending the request
+     * @throws RateLimitExceededException if there is no token left in fail-fast mode
+     */
+    public long reserve(String service, String target, String method) throws RateLimitExceededException {
+        long wait = this.bucket(service, target, method).reserve(failFast ? 0 : Long.MAX_VALUE);
+        if (wait < 0) {
+            throw new RateLimitExceededException("Rate limit exceeded for " + service + " " + target);
+        }
+        return wait;
+    }
+
+    /**
+     * Take a token without blocking, if it is available before the deadline
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @param method HTTP method of the request
+     * @param deadline the deadline of the request, or null
+     * @return how long to wait, in nanoseconds, before sending the request
+     * @throws RateLimitExceededException if there is no token left in fail-fast mode
+     * @throws InterruptedIOException if the token is not available before the deadline, no token is taken then
+     */
+    public long reserve(String service, String target, String method, Deadline deadline) throws RateLimitExceededException, InterruptedIOException {
+        if (failFast || deadline == null) {
+            return this.reserve(service, target, method);
+        }
+        long wait = this.bucket(service, target, method).reserve(Math.max(0, deadline.remainingNanos()));
+        if (wait < 0) {
+            throw new InterruptedIOException("Deadline exceeded before the rate limiter allows the request");
+        }
+        return wait;
+    }
+
+    /**
+     * Take a token only if one is available right away, whatever the mode
+     *
+     * @param service the service name
+     * @param target the application, provider or fund key
+     * @param method HTTP method of the request
+     * @return true if a token has been taken
+     */
+    public boolean tryAcquire(String service, String target, String method) {
+        return this.bucket(service, target, method).reserve(0) >= 0;
+    }
+
+    private Bucket bucket(String service, String target, String method) {
+        boolean read = method.equals("GET");
+        String key = (read ? "r:" : "w:") + service + ":" + target;
+        return buckets.computeIfAbsent(key, k -> read ? new Bucket(readRate, readBurst) : new Bucket(writeRate, writeBurst));
+    }
+
+    private static class Bucket {
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+        Bucket(double rate, int burst) {
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            this.tolerance = interval * (Math.max(burst, 1) - 1);
+        }
+
+        /**
+         * @param maxWait the token is not taken if the caller would have to wait this long, in nanoseconds
+         * @return nanoseconds to wait, -1 if the token is not available soon enough
+         */
+        long reserve(long maxWait) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = arrival.get();
+                long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long wait = start - now - tolerance;
+                if (wait > 0 && wait >= maxWait) {
+                    return -1;
+                }
+                if (arrival.compareAndSet(current, start + interval)) {
+                    return Math.max(wait, 0);
+                }
+            }
+        }
+    }
+}
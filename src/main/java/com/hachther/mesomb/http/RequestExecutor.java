@@ -0,0 +1,86 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.MeSomb;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor to run the blocking operations on, for callers that keep the synchronous signatures.
+ *
+ * With {@link MeSomb#useVirtualThreads} set, each task runs on its own virtual thread on JDK 21+. The operations run on
+ * the thread calling them and hold no monitor around the network I/O, so a task waiting for a response does not take
+ * a carrier thread. Otherwise, or when the JDK cannot create virtual threads, it falls back to a bounded pool of
+ * {@link MeSomb#fallbackPoolSize} platform threads, where the asynchronous variants of the operations scale better.
+ * Both settings are read when the executor is created on first use.
+ *
+ * <pre>
+ * Future&lt;TransactionResponse&gt; response = RequestExecutor.get().submit(() -&gt; payment.makeCollect(request));
+ * </pre>
+ */
+public class RequestExecutor {
+    private static volatile ExecutorService executor;
+    private static boolean virtual;
+
+    private RequestExecutor() {
+    }
+
+    /**
+     * Get the executor, creating it on first use
+     *
+     * @return the executor
+     */
+    public static ExecutorService get() {
+        ExecutorService service = executor;
+        if (service == null) {
+            synchronized (RequestExecutor.class) {
+                service = executor;
+                if (service == null) {
+                    ExecutorService threads = MeSomb.useVirtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+                    virtual = threads != null;
+                    service = virtual ? threads : newPool(MeSomb.fallbackPoolSize);
+                    executor = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Check if the executor runs tasks on virtual threads, creating it on first use
+     *
+     * @return true if virtual threads were requested and could be created
+     */
+    public static boolean isVirtual() {
+        get();
+        return virtual;
+    }
+
+    private static ExecutorService newPool(int poolSize) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "mesomb-request-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // null when the method is missing, or fails as on JDK 19 and 20 without preview features
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
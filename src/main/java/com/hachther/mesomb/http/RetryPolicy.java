@@ -0,0 +1,145 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.MeSomb;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide if and when a failed request should be sent again.
+ *
+ * Delays follow an exponential backoff with full jitter: the n-th retry waits a random time between 0 and
+ * min(maxNetworkRetryDelay, initialNetworkRetryDelay * 2^n). A Retry-After header sent by the server takes precedence
+ * as long as it does not exceed maxRetryAfter.
+ *
+ * Only safe cases are retried:
+ * <ul>
+ *     <li>connection failures, the request never reached the server;</li>
+ *     <li>429 responses, the server rejected the request without processing it;</li>
+ *     <li>other I/O errors and 5xx responses, only when the request is idempotent (a GET, or a request carrying a
+ *     trxID). The same signed request, with the same nonce, is sent again.</li>
+ * </ul>
+ */
+public class RetryPolicy {
+    private final int maxRetries;
+    private final double initialDelay;
+    private final double maxDelay;
+    private final double maxRetryAfter;
+
+    /**
+     * @param maxRetries maximum number of retries, 0 to disable retries
+     * @param initialDelay initial delay between retries, in seconds
+     * @param maxDelay maximum delay between retries, in seconds
+     * @param maxRetryAfter maximum delay, in seconds, that will be respected from a Retry-After header
+     */
+    public RetryPolicy(int maxRetries, double initialDelay, double maxDelay, double maxRetryAfter) {
+        this.maxRetries = maxRetries;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.maxRetryAfter = maxRetryAfter;
+    }
+
+    /**
+     * Build the policy from the settings defined on {@link MeSomb}
+     *
+     * @return the retry policy
+     */
+    public static RetryPolicy fromSettings() {
+        return new RetryPolicy(MeSomb.maxNetworkRetries, MeSomb.initialNetworkRetryDelay, MeSomb.maxNetworkRetryDelay, MeSomb.maxRetryAfter);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Check if a request which failed with an I/O error can be sent again
+     *
+     * @param attempt number of retries already done
+     * @param idempotent whether sending the request twice is safe
+     * @param e the error
+     * @return true if the request should be retried
+     */
+    public boolean shouldRetry(int attempt, boolean idempotent, IOException e) {
+        if (attempt >= maxRetries) {
+            return false;
+        }
+        if (e instanceof ConnectException || e instanceof NoRouteToHostException || e instanceof UnknownHostException) {
+            return true;
+        }
+        if (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException)) {
+            // the caller interrupted or the call deadline expired
+            return false;
+        }
+        return idempotent;
+    }
+
+    /**
+     * Check if a request which received an error status can be sent again
+     *
+     * @param attempt number of retries already done
+     * @param idempotent whether sending the request twice is safe
+     * @param statusCode the status code of the response
+     * @param retryAfter the value of the Retry-After header, may be null
+     * @return true if the request should be retried
+     */
+    public boolean shouldRetry(int attempt, boolean idempotent, int statusCode, String retryAfter) {
+        if (attempt >= maxRetries) {
+            return false;
+        }
+        if (parseRetryAfter(retryAfter) > maxRetryAfter) {
+            return false;
+        }
+        if (statusCode == 429) {
+            return true;
+        }
+        return statusCode >= 500 && idempotent;
+    }
+
+    /**
+     * Compute how long to wait before the next attempt
+     *
+     * @param attempt number of retries already done
+     * @param retryAfter the value of the Retry-After header, may be null
+     * @return the delay in milliseconds
+     */
+    public long getDelayMillis(int attempt, String retryAfter) {
+        double seconds = parseRetryAfter(retryAfter);
+        if (seconds >= 0 && seconds <= maxRetryAfter) {
+            return (long) (seconds * 1000);
+        }
+        double cap = Math.min(maxDelay, initialDelay * Math.pow(2, attempt));
+        return (long) (ThreadLocalRandom.current().nextDouble() * cap * 1000);
+    }
+
+    /**
+     * Parse a Retry-After header given either in seconds or as an HTTP date
+     *
+     * @param retryAfter the header value
+     * @return the delay in seconds, -1 if absent or invalid
+     */
+    static double parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Double.parseDouble(retryAfter.trim()));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis() / 1000.0);
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hachther.mesomb.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Request handed to a {@link HttpTransport}, already signed
+ */
+public class TransportRequest {
+    private final String method;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final String contentType;
+    private final byte[] body;
+    private final Duration timeout;
+
+    /**
+     * @param method HTTP method
+     * @param uri the URL to call
+     * @param headers the headers to send, Content-Type excepted
+     * @param contentType the content type of the body, null if there is no body
+     * @param body the body to send, null if there is no body
+     */
+    public TransportRequest(String method, URI uri, Map<String, String> headers, String contentType, byte[] body) {
+        this.method = method;
+        this.uri = uri;
+        TreeMap<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+        this.headers = Collections.unmodifiableMap(copy);
+        this.contentType = contentType;
+        this.body = body;
+        this.timeout = null;
+    }
+
+    private TransportRequest(TransportRequest request, Duration timeout) {
+        this.method = request.method;
+        this.uri = request.uri;
+        this.headers = request.headers;
+        this.contentType = request.contentType;
+        this.body = request.body;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Copy the request with a time limit for the whole call: connecting, sending and receiving the response
+     *
+     * @param timeout the time limit, null for the transport defaults only
+     * @return the new request
+     */
+    public TransportRequest withTimeout(Duration timeout) {
+        return new TransportRequest(this, timeout);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the value of a header
+     *
+     * @param name the header name, case insensitive
+     * @return the value or null if the header is not set
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,104 @@
+package com.hachther.mesomb.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Response returned by a {@link HttpTransport}. The body is streamed from the connection, the response must be closed
+ * once read. Bodies sent with a Content-Encoding are decompressed while read, see {@link Compression}.
+ */
+public class TransportResponse implements Closeable {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+    private InputStream decodedBody;
+
+    /**
+     * @param statusCode the status code
+     * @param headers the headers received
+     * @param body the body as read from the connection, still encoded
+     */
+    public TransportResponse(int statusCode, Map<String, List<String>> headers, InputStream body) {
+        this.statusCode = statusCode;
+        TreeMap<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+        this.headers = Collections.unmodifiableMap(copy);
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the first value of a header
+     *
+     * @param name the header name, case insensitive
+     * @return the value or null if the header is not set
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    /**
+     * Get the body, decompressed according to the Content-Encoding header
+     *
+     * @return the body stream
+     * @throws IOException if the encoding is not supported
+     */
+    public InputStream getBody() throws IOException {
+        if (decodedBody == null) {
+            decodedBody = Compression.decode(this.getHeader("Content-Encoding"), body);
+        }
+        return decodedBody;
+    }
+
+    /**
+     * Get a reader decoding the body as UTF-8 while it is received
+     *
+     * @return the reader
+     * @throws IOException if the encoding is not supported
+     */
+    public Reader getReader() throws IOException {
+        return new InputStreamReader(this.getBody(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the whole body as an UTF-8 string
+     *
+     * @return the body
+     * @throws IOException if the body cannot be read
+     */
+    public String getBodyString() throws IOException {
+        InputStream input = this.getBody();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (decodedBody != null) {
+            decodedBody.close();
+        } else {
+            body.close();
+        }
+    }
+}
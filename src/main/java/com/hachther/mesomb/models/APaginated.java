@@ -1,15 +1,45 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
 
 public class APaginated {
     public int count;
     public String next = null;
     public String previous = null;
 
+    protected APaginated() {
+    }
+
     public APaginated(JSONObject data) {
         this.count = ((Long) data.get("count")).intValue();
         this.next = (String) data.getOrDefault("next", null);
         this.previous = (String) data.getOrDefault("previous", null);
     }
+
+    /**
+     * Set the field of a property read from the response, unknown properties are skipped
+     * @param name name of the property
+     * @param reader reader positioned on the value of the property
+     * @throws IOException if the response cannot be read
+     * @throws ParseException if the response is not valid JSON
+     */
+    protected void readField(String name, JsonReader reader) throws IOException, ParseException {
+        switch (name) {
+            case "count":
+                this.count = (int) reader.nextLong();
+                break;
+            case "next":
+                this.next = reader.nextString();
+                break;
+            case "previous":
+                this.previous = reader.nextString();
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
 }
@@ -1,63 +1,281 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.DateParser;
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.util.Date;
 
 public abstract class ATransaction {
     public String pk;
     public String status;
     public String type;
+    /** @deprecated use {@link #getAmount()}, null until it is called when listed in lazy mode */
+    @Deprecated
     public Double amount;
+    /** @deprecated use {@link #getFees()}, null until it is called when listed in lazy mode */
+    @Deprecated
     public Double fees;
     public String b_party;
     public String message;
     public String service;
     public String reference;
+    /** Null until {@link #getDate()} is called when listed in lazy mode, see {@link com.hachther.mesomb.MeSomb#lazyModels} */
     public Date date;
     public String country;
     public String currency;
     public String fin_trx_id;
+    /** @deprecated use {@link #getTrxamount()}, null until it is called when listed in lazy mode */
+    @Deprecated
     public Double trxamount;
+    /** Null until {@link #getLocation()} is called when listed in lazy mode, see {@link com.hachther.mesomb.MeSomb#lazyModels} */
     public Location location = null;
 
+    // fixed-point amounts, see Money
+    private long fixedAmount = Money.NONE;
+    private long fixedFees = Money.NONE;
+    private long fixedTrxamount = Money.NONE;
+
+    // lazy mode: JSON of the values not decoded yet
+    private final boolean lazy;
+    private String rawTs;
+    private String rawLocation;
+
+    /**
+     * @param lazy whether the date, the nested objects and the boxed amounts are only decoded when their getter is
+     * called
+     */
+    protected ATransaction(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     public ATransaction(JSONObject data) throws ParseException {
+        this.lazy = false;
         this.pk = (String) data.get("pk");
-        this.status = (String) data.get("status");
-        this.type = (String) data.get("type");
-        Object amount = data.get("amount");
-        if (amount instanceof Double) {
-            this.amount = (Double) amount;
-        } else if (amount instanceof Long) {
-            this.amount = Double.valueOf((Long) amount);
-        }
-        Object fees = data.get("fees");
-        if (fees instanceof Double) {
-            this.fees = (Double) fees;
-        } else if (fees instanceof Long) {
-            this.fees = Double.valueOf((Long) fees);
-        }
+        this.status = StringPool.intern((String) data.get("status"));
+        this.type = StringPool.intern((String) data.get("type"));
+        this.fixedAmount = Money.of(data.get("amount"));
+        this.amount = Money.toBoxed(this.fixedAmount);
+        this.fixedFees = Money.of(data.get("fees"));
+        this.fees = Money.toBoxed(this.fixedFees);
         this.b_party = (String) data.get("b_party");
         this.message = (String) data.getOrDefault("message", null);
-        this.service = (String) data.get("service");
+        this.service = StringPool.intern((String) data.get("service"));
         this.reference = (String) data.getOrDefault("reference", null);
-        this.date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").parse((String) data.get("ts"));
+        this.date = DateParser.parse((String) data.get("ts"));
 
-        this.country = (String) data.get("country");
-        this.currency = (String) data.get("currency");
+        this.country = StringPool.intern((String) data.get("country"));
+        this.currency = StringPool.intern((String) data.get("currency"));
         this.fin_trx_id = (String) data.getOrDefault("fin_trx_id", null);
-        Object trxamount = data.getOrDefault("trxamount", null);
-        if (trxamount != null) {
-            if (trxamount instanceof Double) {
-                this.trxamount = (Double) trxamount;
-            } else if (trxamount instanceof Long) {
-                this.trxamount = Double.valueOf((Long) trxamount);
-            }
-        }
+        this.fixedTrxamount = Money.of(data.get("trxamount"));
+        this.trxamount = Money.toBoxed(this.fixedTrxamount);
         if (data.getOrDefault("location", null) != null) {
             this.location = new Location((JSONObject) data.get("location"));
         }
     }
+
+    /**
+     * Set the field of a property read from the response, unknown properties are skipped
+     * @param name name of the property
+     * @param reader reader positioned on the value of the property
+     * @throws IOException if the response cannot be read
+     * @throws org.json.simple.parser.ParseException if the response is not valid JSON
+     * @throws ParseException if the date is not valid
+     */
+    protected void readField(String name, JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        switch (name) {
+            case "pk":
+                this.pk = reader.nextString();
+                break;
+            case "status":
+                this.status = reader.nextPooledString();
+                break;
+            case "type":
+                this.type = reader.nextPooledString();
+                break;
+            case "amount":
+                this.fixedAmount = reader.nextNullableFixed(Money.SCALE, Money.NONE);
+                if (!lazy) {
+                    this.amount = Money.toBoxed(this.fixedAmount);
+                }
+                break;
+            case "fees":
+                this.fixedFees = reader.nextNullableFixed(Money.SCALE, Money.NONE);
+                if (!lazy) {
+                    this.fees = Money.toBoxed(this.fixedFees);
+                }
+                break;
+            case "b_party":
+                this.b_party = reader.nextString();
+                break;
+            case "message":
+                this.message = reader.nextString();
+                break;
+            case "service":
+                this.service = reader.nextPooledString();
+                break;
+            case "reference":
+                this.reference = reader.nextString();
+                break;
+            case "ts":
+                String ts = reader.nextString();
+                if (lazy) {
+                    this.rawTs = ts;
+                } else if (ts != null) {
+                    this.date = DateParser.parse(ts);
+                }
+                break;
+            case "country":
+                this.country = reader.nextPooledString();
+                break;
+            case "currency":
+                this.currency = reader.nextPooledString();
+                break;
+            case "fin_trx_id":
+                this.fin_trx_id = reader.nextString();
+                break;
+            case "trxamount":
+                this.fixedTrxamount = reader.nextNullableFixed(Money.SCALE, Money.NONE);
+                if (!lazy) {
+                    this.trxamount = Money.toBoxed(this.fixedTrxamount);
+                }
+                break;
+            case "location":
+                if (reader.skipNull()) {
+                    break;
+                }
+                if (lazy) {
+                    this.rawLocation = reader.nextRawValue();
+                } else {
+                    this.location = new Location(reader);
+                }
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    /**
+     * Get the amount of the transaction, boxed on the first call in lazy mode
+     * @return the amount of the transaction, null if not given
+     */
+    public Double getAmount() {
+        if (this.amount == null && lazy) {
+            this.amount = Money.toBoxed(this.fixedAmount);
+        }
+        return this.amount;
+    }
+
+    /**
+     * @return the amount of the transaction in minor units of its currency, rounded to the nearest, 0 if not given
+     */
+    public long getAmountMinor() {
+        return this.toMinor(this.fixedAmount);
+    }
+
+    /**
+     * Get the fees of the transaction, boxed on the first call in lazy mode
+     * @return the fees of the transaction, null if not given
+     */
+    public Double getFees() {
+        if (this.fees == null && lazy) {
+            this.fees = Money.toBoxed(this.fixedFees);
+        }
+        return this.fees;
+    }
+
+    /**
+     * @return the fees of the transaction in minor units of its currency, rounded to the nearest, 0 if not given
+     */
+    public long getFeesMinor() {
+        return this.toMinor(this.fixedFees);
+    }
+
+    /**
+     * Get the amount of the transaction in the currency of the payer, boxed on the first call in lazy mode
+     * @return the amount of the transaction in the currency of the payer, null if not given
+     */
+    public Double getTrxamount() {
+        if (this.trxamount == null && lazy) {
+            this.trxamount = Money.toBoxed(this.fixedTrxamount);
+        }
+        return this.trxamount;
+    }
+
+    /**
+     * @return the amount of the transaction in the currency of the payer in minor units of the transaction currency,
+     * 0 if not given
+     */
+    public long getTrxamountMinor() {
+        return this.toMinor(this.fixedTrxamount);
+    }
+
+    /**
+     * @return the number of decimals of the minor unit of the transaction currency, 0 for XAF
+     */
+    public int getScale() {
+        return Money.scale(this.currency);
+    }
+
+    private long toMinor(long amount) {
+        return amount == Money.NONE ? 0 : Money.toMinor(amount, this.getScale());
+    }
+
+    /**
+     * Get the date of the transaction, decoded on the first call in lazy mode
+     * @return the date
+     */
+    public synchronized Date getDate() {
+        if (this.rawTs != null) {
+            try {
+                this.date = DateParser.parse(this.rawTs);
+            } catch (ParseException e) {
+                throw new IllegalStateException("Invalid transaction date: " + this.rawTs, e);
+            }
+            this.rawTs = null;
+        }
+        return this.date;
+    }
+
+    /**
+     * Get the date of the transaction as an Instant
+     * @return the date
+     */
+    public Instant getDateInstant() {
+        Date date = getDate();
+        return date != null ? date.toInstant() : null;
+    }
+
+    /**
+     * Get the location of the transaction, decoded on the first call in lazy mode
+     * @return the location
+     */
+    public synchronized Location getLocation() {
+        if (this.rawLocation != null) {
+            this.location = decode(this.rawLocation, Location::new);
+            this.rawLocation = null;
+        }
+        return this.location;
+    }
+
+    /**
+     * Decode a value kept as JSON in lazy mode. It was checked when read, so it cannot fail.
+     */
+    static <T> T decode(String json, Decoder<T> decoder) {
+        try {
+            return decoder.decode(new JsonReader(json));
+        } catch (IOException | org.json.simple.parser.ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(JsonReader reader) throws IOException, org.json.simple.parser.ParseException;
+    }
 }
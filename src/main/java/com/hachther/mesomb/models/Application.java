@@ -1,8 +1,14 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class Application {
@@ -32,21 +38,99 @@ public class Application {
         this.url = (String) data.get("url");
     }
 
+    public Application(JsonReader reader) throws IOException, ParseException {
+        String key = null;
+        String logo = null;
+        ApplicationBalance[] balances = new ApplicationBalance[0];
+        String[] countries = new String[0];
+        String description = null;
+        String name = null;
+        String url = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "key":
+                    key = reader.nextString();
+                    break;
+                case "logo":
+                    logo = reader.nextString();
+                    break;
+                case "balances":
+                    List<ApplicationBalance> items = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        items.add(new ApplicationBalance(reader));
+                    }
+                    reader.endArray();
+                    balances = items.toArray(balances);
+                    break;
+                case "countries":
+                    List<String> values = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        values.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    countries = values.toArray(countries);
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "url":
+                    url = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.key = key;
+        this.logo = logo;
+        this.balances = balances;
+        this.countries = countries;
+        this.description = description;
+        this.name = name;
+        this.url = url;
+    }
+
     public float getBalance(String country, String service) {
-        float balance = 0;
+        return (float) Money.toDouble(this.getFixedBalance(country, service));
+    }
+
+    /**
+     * Get the balance in minor units, summed exactly. The balances are expected to share the same currency.
+     * @param country the country of the balances, all if null
+     * @param service the provider of the balances, all if null
+     * @return the balance in minor units of the currency of the balances
+     */
+    public long getBalanceMinor(String country, String service) {
+        String currency = null;
         for (ApplicationBalance bal : this.balances) {
-            if (country != null && !Objects.equals(bal.country, country)) {
-                continue;
-            }
-            if (service != null && !Objects.equals(bal.provider, service)) {
-                continue;
+            if (matches(bal, country, service)) {
+                currency = bal.currency;
+                break;
             }
+        }
+        return Money.toMinor(this.getFixedBalance(country, service), Money.scale(currency));
+    }
 
-            balance += bal.value;
+    private long getFixedBalance(String country, String service) {
+        long balance = 0;
+        for (ApplicationBalance bal : this.balances) {
+            if (matches(bal, country, service)) {
+                balance = Math.addExact(balance, bal.getFixedValue());
+            }
         }
         return balance;
     }
 
+    private static boolean matches(ApplicationBalance bal, String country, String service) {
+        return (country == null || Objects.equals(bal.country, country)) && (service == null || Objects.equals(bal.provider, service));
+    }
+
     public float getBalance() {
         return this.getBalance(null, null);
     }
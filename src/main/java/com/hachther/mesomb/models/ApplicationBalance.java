@@ -1,19 +1,93 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
 
 public class ApplicationBalance {
     public final String country;
     public final String currency;
     public final String provider;
+    /** @deprecated use {@link #getValue()} */
+    @Deprecated
     public final Double value;
     public final String service_name;
 
+    // fixed-point value, see Money
+    private final long fixedValue;
+
     public ApplicationBalance(JSONObject data) {
-        this.country = (String) data.get("country");
-        this.currency = (String) data.get("currency");
-        this.provider = (String) data.get("provider");
-        this.value = (Double) data.get("value");
+        this.country = StringPool.intern((String) data.get("country"));
+        this.currency = StringPool.intern((String) data.get("currency"));
+        this.provider = StringPool.intern((String) data.get("provider"));
+        this.fixedValue = Money.of(data.get("value"));
+        this.value = Money.toBoxed(this.fixedValue);
         this.service_name = (String) data.get("service_name");
     }
+
+    public ApplicationBalance(JsonReader reader) throws IOException, ParseException {
+        String country = null;
+        String currency = null;
+        String provider = null;
+        long value = Money.NONE;
+        String serviceName = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "country":
+                    country = reader.nextPooledString();
+                    break;
+                case "currency":
+                    currency = reader.nextPooledString();
+                    break;
+                case "provider":
+                    provider = reader.nextPooledString();
+                    break;
+                case "value":
+                    value = reader.nextNullableFixed(Money.SCALE, Money.NONE);
+                    break;
+                case "service_name":
+                    serviceName = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.country = country;
+        this.currency = currency;
+        this.provider = provider;
+        this.fixedValue = value;
+        this.value = Money.toBoxed(value);
+        this.service_name = serviceName;
+    }
+
+    /**
+     * @return the balance, null if not given
+     */
+    public Double getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return the balance in minor units of its currency, rounded to the nearest, 0 if not given
+     */
+    public long getValueMinor() {
+        return this.fixedValue == Money.NONE ? 0 : Money.toMinor(this.fixedValue, this.getScale());
+    }
+
+    /**
+     * @return the number of decimals of the minor unit of the currency
+     */
+    public int getScale() {
+        return Money.scale(this.currency);
+    }
+
+    long getFixedValue() {
+        return this.fixedValue == Money.NONE ? 0 : this.fixedValue;
+    }
 }
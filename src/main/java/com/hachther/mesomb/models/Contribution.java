@@ -1,16 +1,68 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
 
 public class Contribution extends ATransaction {
+    /** Null until {@link #getContributor()} is called when listed in lazy mode, see {@link com.hachther.mesomb.MeSomb#lazyModels} */
     public Customer contributor = null;
 
+    private String rawContributor;
+
     public Contribution(JSONObject data) throws ParseException {
         super(data);
         if (data.getOrDefault("contributor", null) != null) {
             this.contributor = new Customer((JSONObject) data.get("contributor"));
         }
     }
+
+    public Contribution(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        this(reader, false);
+    }
+
+    /**
+     * Read the contribution from the response. In lazy mode its date, location and contributor are kept as JSON and
+     * only decoded by {@link #getDate()}, {@link #getLocation()} and {@link #getContributor()}, the fields stay null
+     * until then.
+     * @param reader reader positioned on the contribution
+     * @param lazy whether to use the lazy mode
+     * @throws IOException if the response cannot be read
+     * @throws org.json.simple.parser.ParseException if the response is not valid JSON
+     * @throws ParseException if the date is not valid
+     */
+    public Contribution(JsonReader reader, boolean lazy) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        super(lazy);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("contributor")) {
+                if (reader.skipNull()) {
+                    continue;
+                }
+                if (lazy) {
+                    this.rawContributor = reader.nextRawValue();
+                } else {
+                    this.contributor = new Customer(reader);
+                }
+            } else {
+                this.readField(name, reader);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Get the contributor, decoded on the first call in lazy mode
+     * @return the contributor
+     */
+    public synchronized Customer getContributor() {
+        if (this.rawContributor != null) {
+            this.contributor = decode(this.rawContributor, Customer::new);
+            this.rawContributor = null;
+        }
+        return this.contributor;
+    }
 }
\ No newline at end of file
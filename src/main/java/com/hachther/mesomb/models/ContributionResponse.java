@@ -1,7 +1,9 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.Objects;
 
@@ -18,6 +20,39 @@ public class ContributionResponse {
         this.status = (String) data.get("status");
     }
 
+    public ContributionResponse(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        boolean success = false;
+        String message = null;
+        Contribution contribution = null;
+        String status = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success":
+                    success = reader.nextBoolean();
+                    break;
+                case "message":
+                    message = reader.nextString();
+                    break;
+                case "contribution":
+                    if (!reader.skipNull()) {
+                        contribution = new Contribution(reader);
+                    }
+                    break;
+                case "status":
+                    status = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.success = success;
+        this.message = message;
+        this.contribution = contribution;
+        this.status = status;
+    }
+
     public boolean isOperationSuccess()
     {
         return this.success;
@@ -1,6 +1,11 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
 
 public class Customer {
     /// The email of the customer
@@ -32,9 +37,60 @@ public class Customer {
         this.phone = (String) obj.getOrDefault("phone", null);
         this.town = (String) obj.getOrDefault("town", null);
         this.region = (String) obj.getOrDefault("region", null);
-        this.country = (String) obj.getOrDefault("country", null);
+        this.country = StringPool.intern((String) obj.getOrDefault("country", null));
         this.firstName = (String) obj.getOrDefault("first_name", null);
         this.lastName = (String) obj.getOrDefault("last_name", null);
         this.address = (String) obj.getOrDefault("address", null);
     }
+
+    public Customer(JsonReader reader) throws IOException, ParseException {
+        String email = null;
+        String phone = null;
+        String town = null;
+        String region = null;
+        String country = null;
+        String firstName = null;
+        String lastName = null;
+        String address = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "email":
+                    email = reader.nextString();
+                    break;
+                case "phone":
+                    phone = reader.nextString();
+                    break;
+                case "town":
+                    town = reader.nextString();
+                    break;
+                case "region":
+                    region = reader.nextString();
+                    break;
+                case "country":
+                    country = reader.nextPooledString();
+                    break;
+                case "first_name":
+                    firstName = reader.nextString();
+                    break;
+                case "last_name":
+                    lastName = reader.nextString();
+                    break;
+                case "address":
+                    address = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.email = email;
+        this.phone = phone;
+        this.town = town;
+        this.region = region;
+        this.country = country;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.address = address;
+    }
 }
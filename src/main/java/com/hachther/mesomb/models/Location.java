@@ -1,6 +1,11 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
 
 public class Location {
     public final String town;
@@ -10,6 +15,32 @@ public class Location {
     public Location(JSONObject obj) {
         this.town = (String) obj.get("town");
         this.region = (String) obj.getOrDefault("region", null);
-        this.country = (String) obj.getOrDefault("country", null);
+        this.country = StringPool.intern((String) obj.getOrDefault("country", null));
+    }
+
+    public Location(JsonReader reader) throws IOException, ParseException {
+        String town = null;
+        String region = null;
+        String country = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "town":
+                    town = reader.nextString();
+                    break;
+                case "region":
+                    region = reader.nextString();
+                    break;
+                case "country":
+                    country = reader.nextPooledString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.town = town;
+        this.region = region;
+        this.country = country;
     }
 }
@@ -1,9 +1,13 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class PaginatedWalletTransactions extends APaginated {
     public WalletTransaction[] results;
@@ -16,4 +20,24 @@ public class PaginatedWalletTransactions extends APaginated {
             this.results[i] = new WalletTransaction((JSONObject) results.get(i));
         }
     }
+
+    public PaginatedWalletTransactions(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        this.results = new WalletTransaction[0];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("results")) {
+                List<WalletTransaction> results = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    results.add(new WalletTransaction(reader));
+                }
+                reader.endArray();
+                this.results = results.toArray(this.results);
+            } else {
+                this.readField(name, reader);
+            }
+        }
+        reader.endObject();
+    }
 }
@@ -1,7 +1,13 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class PaginatedWallets extends APaginated {
     public Wallet[] results = null;
@@ -14,4 +20,24 @@ public class PaginatedWallets extends APaginated {
             this.results[i] = new Wallet((JSONObject) results.get(i));
         }
     }
+
+    public PaginatedWallets(JsonReader reader) throws IOException, ParseException {
+        this.results = new Wallet[0];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("results")) {
+                List<Wallet> results = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    results.add(new Wallet(reader));
+                }
+                reader.endArray();
+                this.results = results.toArray(this.results);
+            } else {
+                this.readField(name, reader);
+            }
+        }
+        reader.endObject();
+    }
 }
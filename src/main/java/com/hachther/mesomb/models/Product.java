@@ -1,20 +1,82 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
 
 public class Product {
     public final String id;
     public final String name;
     public final String category;
     public final Long quantity;
+    /** @deprecated use {@link #getAmount()} */
+    @Deprecated
     public final Double amount;
 
+    // fixed-point amount, see Money
+    private final long fixedAmount;
+
     public Product(JSONObject obj) {
-        System.out.println(obj);
         this.id = (String) obj.get("id");
         this.name = (String) obj.get("name");
         this.category = (String) obj.getOrDefault("category", null);
         this.quantity = obj.containsKey ("quantity") ? (Long) obj.get("quantity") : null;
-        this.amount = obj.containsKey ("amount") ? (Double) obj.get("amount") : null;
+        this.fixedAmount = Money.of(obj.get("amount"));
+        this.amount = Money.toBoxed(this.fixedAmount);
+    }
+
+    public Product(JsonReader reader) throws IOException, ParseException {
+        String id = null;
+        String name = null;
+        String category = null;
+        Long quantity = null;
+        long amount = Money.NONE;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = reader.nextString();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "category":
+                    category = reader.nextString();
+                    break;
+                case "quantity":
+                    quantity = reader.nextNullableLong();
+                    break;
+                case "amount":
+                    amount = reader.nextNullableFixed(Money.SCALE, Money.NONE);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.quantity = quantity;
+        this.fixedAmount = amount;
+        this.amount = Money.toBoxed(amount);
+    }
+
+    /**
+     * @return the amount of the product, null if not given
+     */
+    public Double getAmount() {
+        return this.amount;
+    }
+
+    /**
+     * @param scale the number of decimals of the minor unit of the transaction currency
+     * @return the amount of the product in minor units, 0 if not given
+     */
+    public long getAmountMinor(int scale) {
+        return this.fixedAmount == Money.NONE ? 0 : Money.toMinor(this.fixedAmount, scale);
     }
 }
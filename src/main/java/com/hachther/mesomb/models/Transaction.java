@@ -1,14 +1,23 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Transaction extends ATransaction {
+    /** Null until {@link #getCustomer()} is called when listed in lazy mode, see {@link com.hachther.mesomb.MeSomb#lazyModels} */
     public Customer customer = null;
+    /** Null until {@link #getProducts()} is called when listed in lazy mode, see {@link com.hachther.mesomb.MeSomb#lazyModels} */
     public Product[] products = null;
 
+    private String rawCustomer;
+    private String rawProducts;
+
     public Transaction(JSONObject data) throws ParseException {
         super(data);
         if (data.getOrDefault("customer", null) != null) {
@@ -23,4 +32,83 @@ public class Transaction extends ATransaction {
             }
         }
     }
+
+    public Transaction(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        this(reader, false);
+    }
+
+    /**
+     * Read the transaction from the response. In lazy mode its date, location, customer and products are kept as
+     * JSON and only decoded by {@link #getDate()}, {@link #getLocation()}, {@link #getCustomer()} and
+     * {@link #getProducts()}, the fields stay null until then. The deprecated amount, fees and trxamount fields are
+     * likewise only boxed by their getters.
+     * @param reader reader positioned on the transaction
+     * @param lazy whether to use the lazy mode
+     * @throws IOException if the response cannot be read
+     * @throws org.json.simple.parser.ParseException if the response is not valid JSON
+     * @throws ParseException if the date is not valid
+     */
+    public Transaction(JsonReader reader, boolean lazy) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        super(lazy);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("customer")) {
+                if (reader.skipNull()) {
+                    continue;
+                }
+                if (lazy) {
+                    this.rawCustomer = reader.nextRawValue();
+                } else {
+                    this.customer = new Customer(reader);
+                }
+            } else if (name.equals("products")) {
+                if (reader.skipNull()) {
+                    continue;
+                }
+                if (lazy) {
+                    this.rawProducts = reader.nextRawValue();
+                } else {
+                    this.products = readProducts(reader);
+                }
+            } else {
+                this.readField(name, reader);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Get the customer, decoded on the first call in lazy mode
+     * @return the customer
+     */
+    public synchronized Customer getCustomer() {
+        if (this.rawCustomer != null) {
+            this.customer = decode(this.rawCustomer, Customer::new);
+            this.rawCustomer = null;
+        }
+        return this.customer;
+    }
+
+    /**
+     * Get the products, decoded on the first call in lazy mode
+     * @return the products
+     */
+    public synchronized Product[] getProducts() {
+        if (this.rawProducts != null) {
+            this.products = decode(this.rawProducts, Transaction::readProducts);
+            this.rawProducts = null;
+        }
+        return this.products;
+    }
+
+    private static Product[] readProducts(JsonReader reader) throws IOException, org.json.simple.parser.ParseException {
+        List<Product> products = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            products.add(new Product(reader));
+        }
+        reader.endArray();
+        return products.toArray(new Product[0]);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.JsonReader;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.Objects;
 
@@ -22,6 +24,49 @@ public class TransactionResponse {
         this.status = (String) data.get("status");
     }
 
+    public TransactionResponse(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        boolean success = false;
+        String message = null;
+        String redirect = null;
+        Transaction transaction = null;
+        String reference = null;
+        String status = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success":
+                    success = reader.nextBoolean();
+                    break;
+                case "message":
+                    message = reader.nextString();
+                    break;
+                case "redirect":
+                    redirect = reader.nextString();
+                    break;
+                case "transaction":
+                    if (!reader.skipNull()) {
+                        transaction = new Transaction(reader);
+                    }
+                    break;
+                case "reference":
+                    reference = reader.nextString();
+                    break;
+                case "status":
+                    status = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        this.success = success;
+        this.message = message;
+        this.redirect = redirect;
+        this.transaction = transaction;
+        this.reference = reference;
+        this.status = status;
+    }
+
     public boolean isOperationSuccess()
     {
         return this.success;
@@ -1,8 +1,14 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.DateParser;
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
 
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Date;
 
 public class Wallet {
@@ -13,6 +19,8 @@ public class Wallet {
     public final String country;
     public final String status;
     public Date lastActivity = null;
+    /** @deprecated use {@link #getBalance()} */
+    @Deprecated
     public Double balance = null;
     public String firstName = null;
     public final String lastName;
@@ -20,26 +28,62 @@ public class Wallet {
     public final String phoneNumber;
     public final String gender;
 
+    // fixed-point balance, see Money
+    private final long fixedBalance;
+
     public Wallet(JSONObject data) {
         _data = data;
 
         this.id = (Long) data.get("id");
         this.number = (String) data.get("number");
-        this.country = (String) data.get("country");
-        this.status = (String) data.get("status");
+        this.country = StringPool.intern((String) data.get("country"));
+        this.status = StringPool.intern((String) data.get("status"));
         if (data.getOrDefault("last_activity", null) != null) {
             try {
-                this.lastActivity = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").parse((String) data.get("last_activity"));
+                this.lastActivity = DateParser.parse((String) data.get("last_activity"));
             } catch (Exception ignored) {}
         }
-        if (data.getOrDefault("balance", null) != null) {
-            this.balance = (Double) data.get("balance");
-        }
+        this.fixedBalance = Money.of(data.get("balance"));
+        this.balance = Money.toBoxed(this.fixedBalance);
         this.firstName = (String) data.getOrDefault("first_name", null);
         this.lastName = (String) data.get("last_name");
         this.email = (String) data.getOrDefault("email", null);
         this.phoneNumber = (String) data.get("phone_number");
-        this.gender = (String) data.get("gender");
+        this.gender = StringPool.intern((String) data.get("gender"));
+    }
+
+    /**
+     * Read the wallet from the response. The raw object returned by {@link #getData()} is kept, so it is read as a
+     * JSONObject first.
+     * @param reader reader positioned on the wallet
+     * @throws IOException if the response cannot be read
+     * @throws ParseException if the response is not a valid wallet
+     */
+    public Wallet(JsonReader reader) throws IOException, ParseException {
+        this(reader.nextObject());
+    }
+
+    /**
+     * @return the balance of the wallet, null if not given
+     */
+    public Double getBalance() {
+        return this.balance;
+    }
+
+    /**
+     * @param currency the currency of the wallet
+     * @return the balance of the wallet in minor units of the currency, rounded to the nearest, 0 if not given
+     */
+    public long getBalanceMinor(String currency) {
+        return this.fixedBalance == Money.NONE ? 0 : Money.toMinor(this.fixedBalance, Money.scale(currency));
+    }
+
+    /**
+     * Get the last activity of the wallet as an Instant
+     * @return the date of the last activity
+     */
+    public Instant getLastActivityInstant() {
+        return this.lastActivity != null ? this.lastActivity.toInstant() : null;
     }
 
     public JSONObject getData() {
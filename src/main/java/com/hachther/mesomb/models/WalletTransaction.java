@@ -1,9 +1,14 @@
 package com.hachther.mesomb.models;
 
+import com.hachther.mesomb.util.DateParser;
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.Money;
+import com.hachther.mesomb.util.StringPool;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.util.Date;
 
 public class WalletTransaction {
@@ -12,31 +17,92 @@ public class WalletTransaction {
     public Long id;
     public String status;
     public String type;
+    /** @deprecated use {@link #getAmount()} */
+    @Deprecated
     public Double amount;
     public int direction;
     public Long wallet;
+    /** @deprecated use {@link #getBalanceAfter()} */
+    @Deprecated
     public Double balanceAfter;
     public Date date;
     public String country;
     public String finTrxId;
     public String message;
 
+    // fixed-point amounts, see Money
+    private final long fixedAmount;
+    private final long fixedBalanceAfter;
+
     public WalletTransaction(JSONObject data) throws ParseException {
         this._data = data;
 
         this.id = (Long) data.get("id");
-        this.status = (String) data.get("status");
-        this.type = (String) data.get("type");
-        this.amount = (Double) data.get("amount");
+        this.status = StringPool.intern((String) data.get("status"));
+        this.type = StringPool.intern((String) data.get("type"));
+        this.fixedAmount = Money.of(data.get("amount"));
+        this.amount = Money.toBoxed(this.fixedAmount);
         this.direction = Integer.parseInt(data.get("direction").toString());
         this.wallet = (Long) data.get("wallet");
-        this.balanceAfter = (Double) data.get("balance_after");
-        this.date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").parse((String) data.get("date"));
-        this.country = (String) data.get("country");
+        this.fixedBalanceAfter = Money.of(data.get("balance_after"));
+        this.balanceAfter = Money.toBoxed(this.fixedBalanceAfter);
+        this.date = DateParser.parse((String) data.get("date"));
+        this.country = StringPool.intern((String) data.get("country"));
         this.finTrxId = (String) data.get("fin_trx_id");
         this.message = (String) data.get("message");
     }
 
+    /**
+     * Read the transaction from the response. The raw object returned by {@link #getData()} is kept, so it is read as
+     * a JSONObject first.
+     * @param reader reader positioned on the transaction
+     * @throws IOException if the response cannot be read
+     * @throws org.json.simple.parser.ParseException if the response is not a valid transaction
+     * @throws ParseException if the date is not valid
+     */
+    public WalletTransaction(JsonReader reader) throws IOException, org.json.simple.parser.ParseException, ParseException {
+        this(reader.nextObject());
+    }
+
+    /**
+     * @return the amount of the transaction, null if not given
+     */
+    public Double getAmount() {
+        return this.amount;
+    }
+
+    /**
+     * @param currency the currency of the wallet
+     * @return the amount of the transaction in minor units of the currency, rounded to the nearest, 0 if not given
+     */
+    public long getAmountMinor(String currency) {
+        return this.fixedAmount == Money.NONE ? 0 : Money.toMinor(this.fixedAmount, Money.scale(currency));
+    }
+
+    /**
+     * @return the balance of the wallet after the transaction, null if not given
+     */
+    public Double getBalanceAfter() {
+        return this.balanceAfter;
+    }
+
+    /**
+     * @param currency the currency of the wallet
+     * @return the balance of the wallet after the transaction in minor units of the currency, rounded to the nearest,
+     * 0 if not given
+     */
+    public long getBalanceAfterMinor(String currency) {
+        return this.fixedBalanceAfter == Money.NONE ? 0 : Money.toMinor(this.fixedBalanceAfter, Money.scale(currency));
+    }
+
+    /**
+     * Get the date of the transaction as an Instant
+     * @return the date
+     */
+    public Instant getDateInstant() {
+        return this.date != null ? this.date.toInstant() : null;
+    }
+
     public JSONObject getData() {
         return this._data;
     }
@@ -1,102 +1,246 @@
 package com.hachther.mesomb.operations;
 
+import com.hachther.mesomb.EndpointTemplate;
 import com.hachther.mesomb.MeSomb;
 import com.hachther.mesomb.Signature;
+import com.hachther.mesomb.exceptions.CircuitBreakerOpenException;
 import com.hachther.mesomb.exceptions.InvalidClientRequestException;
 import com.hachther.mesomb.exceptions.PermissionDeniedException;
+import com.hachther.mesomb.exceptions.RateLimitExceededException;
 import com.hachther.mesomb.exceptions.ServerException;
 import com.hachther.mesomb.exceptions.ServiceNotFoundException;
+import com.hachther.mesomb.http.CircuitBreaker;
+import com.hachther.mesomb.http.Compression;
+import com.hachther.mesomb.http.ConcurrencyLimiter;
+import com.hachther.mesomb.http.Deadline;
+import com.hachther.mesomb.http.HedgingPolicy;
+import com.hachther.mesomb.http.HttpTransport;
+import com.hachther.mesomb.http.OkHttpTransport;
+import com.hachther.mesomb.http.RateLimiter;
+import com.hachther.mesomb.http.RequestExecutor;
+import com.hachther.mesomb.http.RetryPolicy;
+import com.hachther.mesomb.http.TransportRequest;
+import com.hachther.mesomb.http.TransportResponse;
+import com.hachther.mesomb.models.TransactionResponse;
+import com.hachther.mesomb.requests.ARequest;
+import com.hachther.mesomb.util.JsonReader;
+import com.hachther.mesomb.util.RandomGenerator;
 
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.InetAddress;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
 
 public abstract class AOperation {
     public static final MediaType JSON
             = MediaType.get("application/json; charset=utf-8");
 
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int MAX_TEMPLATES = 256;
+    private static final ScheduledExecutorService TIMER = newTimer();
+    private static final String WARMUP_RESPONSE = "{\"success\":true,\"message\":\"Warmup\",\"redirect\":null,\"reference\":\"REF\",\"status\":\"SUCCESS\","
+            + "\"transaction\":{\"pk\":\"a4f2d1c9-7b0e-4c35-9e51-0d6f1f0e2b7a\",\"status\":\"SUCCESS\",\"type\":\"COLLECT\",\"amount\":100.0,\"fees\":2,"
+            + "\"b_party\":\"237670000000\",\"message\":null,\"service\":\"MTN\",\"reference\":\"REF\",\"ts\":\"2024-01-01T00:00:00Z\",\"country\":\"CM\","
+            + "\"currency\":\"XAF\",\"fin_trx_id\":\"FIN\",\"trxamount\":102}}";
+
     private final String target;
     private final String accessKey;
-    private final String secretKey;
+    private final Signature.SigningKey secretKey;
     private final String language;
+    private final HttpTransport transport;
+    private volatile Templates templates = new Templates("", "");
+    private volatile String targetHeader;
 
     public AOperation(String target, String accessKey, String secretKey, String language) {
+        this(target, accessKey, secretKey, language, null);
+    }
+
+    /**
+     * @param target the application, provider or fund key
+     * @param accessKey the access key
+     * @param secretKey the secret key
+     * @param language the language of the responses
+     * @param transport the transport to use, null to use {@link MeSomb#transport}
+     */
+    public AOperation(String target, String accessKey, String secretKey, String language, HttpTransport transport) {
         this.target = target;
         this.accessKey = accessKey;
-        this.secretKey = secretKey;
+        this.secretKey = new Signature.SigningKey(secretKey);
         this.language = language;
+        this.transport = transport;
     }
 
     /**
-     * Get the service name
-     * @return the service name
+     * Get the transport used by this operation
+     * @return the transport
      */
-    public abstract String getService();
+    public HttpTransport getTransport() {
+        if (transport != null) {
+            return transport;
+        }
+        HttpTransport defaultTransport = MeSomb.transport;
+        return defaultTransport != null ? defaultTransport : OkHttpTransport.getDefault();
+    }
 
     /**
-     * Build the URL for the request
-     * @param endpoint the endpoint to call
-     * @return the URL
+     * Prepare for the first real calls, using {@link MeSomb#maxIdleConnections} connections
+     *
+     * @throws IOException if the API cannot be reached
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is not valid
+     * @see #warmup(int)
      */
-    private String buildUrl(String endpoint) {
-        return MeSomb.apiBase + "/api/" + MeSomb.apiVersion + "/" + endpoint;
+    public void warmup() throws IOException, NoSuchAlgorithmException, InvalidKeyException {
+        this.warmup(MeSomb.maxIdleConnections);
     }
 
     /**
-     * Generate the authorization header
-     * @param method HTTP method
-     * @param endpoint the endpoint to call
-     * @param date the date of the request
-     * @param nonce the nonce of the request
-     * @param headers the headers of the request
-     * @param body the body of the request
-     * @return the authorization header
-     * @throws MalformedURLException if the URL is not valid
-     * @throws UnsupportedEncodingException if the encoding is not supported
+     * Prepare for the first real calls: resolve the host of {@link MeSomb#apiBase}, sign requests and parse a
+     * synthetic response enough times for the JIT to compile those paths, then open the given number of connections
+     * on the transport with concurrent HEAD requests. These requests go to the root of {@link MeSomb#apiBase}, on the
+     * API host, without any credentials or signature; no operation is called. Pass 0 to send nothing.
+     *
+     * @param connections number of connections to open, 0 to skip the HEAD requests
+     *
+     * @throws IOException if the API cannot be reached
      * @throws NoSuchAlgorithmException if the algorithm is not supported
      * @throws InvalidKeyException if the key is not valid
      */
-    private String getAuthorization(String method, String endpoint, Date date, String nonce, TreeMap<String, String> headers, Map<String, Object> body) throws MalformedURLException, UnsupportedEncodingException, NoSuchAlgorithmException, InvalidKeyException {
-        String url = this.buildUrl(endpoint);
+    public void warmup(int connections) throws IOException, NoSuchAlgorithmException, InvalidKeyException {
+        URI base = URI.create(MeSomb.apiBase + "/");
+        InetAddress.getAllByName(base.getHost());
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("amount", 100f);
+            body.put("service", "MTN");
+            body.put("payer", "670000000");
+            body.put("country", "CM");
+            body.put("currency", "XAF");
+            this.buildRequest("POST", "payment/collect/", this.now(), RandomGenerator.nonce(), body, "synchronous");
+            try {
+                new TransactionResponse(new JsonReader(WARMUP_RESPONSE));
+            } catch (ParseException | java.text.ParseException e) {
+                throw new IllegalStateException(e);
+            }
+        }
 
-        Map<String, String> credentials = new HashMap<>();
-        credentials.put("accessKey", this.accessKey);
-        credentials.put("secretKey", this.secretKey);
+        HttpTransport transport = this.getTransport();
+        TransportRequest request = new TransportRequest("HEAD", base, new HashMap<>(), null, null);
+        List<CompletableFuture<TransportResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(transport.executeAsync(request));
+        }
+        for (CompletableFuture<TransportResponse> call : calls) {
+            try {
+                call.get().close();
+            } catch (InterruptedException e) {
+                calls.forEach(c -> c.cancel(true));
+                Thread.currentThread().interrupt();
+                InterruptedIOException exception = new InterruptedIOException("Interrupted while opening connections");
+                exception.initCause(e);
+                throw exception;
+            } catch (ExecutionException e) {
+                calls.forEach(c -> c.cancel(true));
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+    }
 
-        return Signature.signRequest("payment", method, url, date, nonce, credentials, headers, body);
+    /**
+     * Get the date of a new request from {@link MeSomb#clock}
+     * @return the date
+     */
+    Date now() {
+        return new Date(MeSomb.clock.millis());
     }
 
     /**
-     * Generate the authorization header
+     * Get the service name
+     * @return the service name
+     */
+    public abstract String getService();
+
+    /**
+     * Get the template of an endpoint, compiled on first use
      * @param method HTTP method
-     * @param endpoint the endpoint to call
-     * @param date the date of the request
-     * @param nonce the nonce of the request
-     * @return the authorization header
+     * @param path the endpoint to call, without query
+     * @return the template
      * @throws MalformedURLException if the URL is not valid
-     * @throws UnsupportedEncodingException if the encoding is not supported
-     * @throws NoSuchAlgorithmException if the algorithm is not supported
-     * @throws InvalidKeyException if the key is not valid
      */
-    private String getAuthorization(String method, String endpoint, Date date, String nonce) throws MalformedURLException, UnsupportedEncodingException, NoSuchAlgorithmException, InvalidKeyException {
-        return this.getAuthorization(method, endpoint, date, nonce, null, null);
+    private EndpointTemplate getTemplate(String method, String path) throws MalformedURLException {
+        Templates templates = this.templates;
+        if (!templates.apiBase.equals(MeSomb.apiBase) || !templates.apiVersion.equals(MeSomb.apiVersion)) {
+            templates = new Templates(MeSomb.apiBase, MeSomb.apiVersion);
+            this.templates = templates;
+        }
+        boolean hasBody = !method.equals("GET");
+        String key = hasBody ? "+" + path : path;
+        EndpointTemplate template = templates.endpoints.get(key);
+        if (template == null) {
+            template = EndpointTemplate.compile(templates.apiBase + "/api/" + templates.apiVersion + "/" + path, hasBody ? JSON.toString() : null);
+            if (templates.endpoints.size() >= MAX_TEMPLATES) {
+                templates.endpoints.clear();
+            }
+            templates.endpoints.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * Get the header carrying the target, depending on the service
+     * @return the header name, null if the service has none
+     */
+    private String getTargetHeader() {
+        String header = this.targetHeader;
+        if (header == null) {
+            switch (getService()) {
+                case "payment":
+                    header = "X-MeSomb-Application";
+                    break;
+                case "wallet":
+                    header = "X-MeSomb-Provider";
+                    break;
+                case "fundraising":
+                    header = "X-MeSomb-Fund";
+                    break;
+                default:
+                    header = "";
+            }
+            this.targetHeader = header;
+        }
+        return header.isEmpty() ? null : header;
     }
 
 
@@ -140,8 +284,9 @@ public abstract class AOperation {
      * @param method HTTP method
      * @param endpoint the endpoint to call
      * @param date the date of the request
+     * @param parser used to convert the response body to the result
      *
-     * @return the response
+     * @return the parsed response
      *
      * @throws IOException if the request fails
      * @throws NoSuchAlgorithmException if the algorithm is not supported
@@ -150,9 +295,10 @@ public abstract class AOperation {
      * @throws ServerException if the server has an error
      * @throws ServiceNotFoundException if the service is not found
      * @throws PermissionDeniedException if the permission is denied
+     * @throws ParseException if the response is not valid JSON
      */
-    String executeRequest(String method, String endpoint, Date date) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException {
-        return this.executeRequest(method, endpoint, date, "", null, null);
+    <T, E extends Exception> T executeRequest(String method, String endpoint, Date date, ResponseParser<T, E> parser) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException, ParseException, E {
+        return this.executeRequest(method, endpoint, date, "", null, null, parser);
     }
 
     /**
@@ -162,8 +308,9 @@ public abstract class AOperation {
      * @param date the date of the request
      * @param nonce the nonce of the request
      * @param body the body of the request
+     * @param parser used to convert the response body to the result
      *
-     * @return the response
+     * @return the parsed response
      *
      * @throws IOException if the request fails
      * @throws NoSuchAlgorithmException if the algorithm is not supported
@@ -172,13 +319,14 @@ public abstract class AOperation {
      * @throws ServerException if the server has an error
      * @throws ServiceNotFoundException if the service is not found
      * @throws PermissionDeniedException if the permission is denied
+     * @throws ParseException if the response is not valid JSON
      */
-    String executeRequest(String method, String endpoint, Date date, String nonce, Map<String, Object> body) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException {
-        return this.executeRequest(method, endpoint, date, nonce, body, null);
+    <T, E extends Exception> T executeRequest(String method, String endpoint, Date date, String nonce, Map<String, Object> body, ResponseParser<T, E> parser) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException, ParseException, E {
+        return this.executeRequest(method, endpoint, date, nonce, body, null, parser);
     }
 
     /**
-     * Execute the request
+     * Build the signed request
      * @param method HTTP method
      * @param endpoint the endpoint to call
      * @param date the date of the request
@@ -186,7 +334,105 @@ public abstract class AOperation {
      * @param body the body of the request
      * @param mode the operation mode
      *
-     * @return the response
+     * @return the request ready to be sent
+     *
+     * @throws MalformedURLException if the URL is not valid
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is not valid
+     */
+    private TransportRequest buildRequest(String method, String endpoint, Date date, String nonce, Map<String, Object> body, String mode) throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        String trxID = null;
+        if (body != null && body.containsKey("trxID")) {
+            trxID = (String) body.get("trxID");
+            body.remove("trxID");
+        }
+        // serialized once, the signature covers the exact bytes sent
+        byte[] content = body != null ? Signature.serializeBody(body) : null;
+        return this.buildRequest(method, endpoint, date, nonce, content, trxID, mode);
+    }
+
+    /**
+     * Build the signed POST request of a typed body
+     * @param endpoint the endpoint to call
+     * @param request the body of the request
+     *
+     * @return the request ready to be sent
+     *
+     * @throws MalformedURLException if the URL is not valid
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is not valid
+     */
+    private TransportRequest buildRequest(String endpoint, ARequest request) throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        String nonce = request.getNonce() != null ? request.getNonce() : RandomGenerator.nonce();
+        return this.buildRequest("POST", endpoint, this.now(), nonce, request.toJson(), request.getTrxID(), request.getMode());
+    }
+
+    private TransportRequest buildRequest(String method, String endpoint, Date date, String nonce, byte[] content, String trxID, String mode) throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        int q = endpoint.indexOf('?');
+        EndpointTemplate template = this.getTemplate(method, q < 0 ? endpoint : endpoint.substring(0, q));
+        String query = q < 0 ? "" : endpoint.substring(q + 1);
+        assert method.equals("GET") || content != null;
+        String authorization = Signature.signRequest("payment", method, template, query, date, nonce, this.accessKey, this.secretKey, method.equals("GET") ? null : content);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-mesomb-date", String.valueOf(date.getTime() / 1000));
+        headers.put("x-mesomb-nonce", nonce);
+        headers.put("Authorization", authorization);
+        headers.put("X-MeSomb-Source", "MeSombJava/" + MeSomb.version);
+        headers.put("Accept-Language", language);
+        String targetHeader = this.getTargetHeader();
+        if (targetHeader != null) {
+            headers.put(targetHeader, target);
+        }
+        if (mode != null) {
+            headers.put("X-MeSomb-OperationMode", mode);
+        }
+        if (trxID != null) {
+            headers.put("X-MeSomb-TrxID", trxID);
+        }
+        if (content != null && MeSomb.requestCompressionThreshold >= 0 && content.length >= MeSomb.requestCompressionThreshold) {
+            // the signature covers the uncompressed body
+            content = Compression.gzip(content);
+            headers.put("Content-Encoding", "gzip");
+        }
+        return new TransportRequest(method, template.toUri(query), headers, content != null ? JSON.toString() : null, content);
+    }
+
+    /**
+     * Check the response, raising the matching exception for error status codes. Error responses are closed.
+     * @param response the response received
+     *
+     * @return the response, its body not read yet
+     *
+     * @throws IOException if the body cannot be read
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ServerException if the server has an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if the permission is denied
+     */
+    private TransportResponse processResponse(TransportResponse response) throws IOException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException {
+        if (response.getStatusCode() >= 400) {
+            try (TransportResponse r = response) {
+                this.processClientException(r.getStatusCode(), r.getBodyString());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Execute the request.
+     *
+     * The body is parsed straight from the connection stream, without being buffered in a String first.
+     *
+     * @param method HTTP method
+     * @param endpoint the endpoint to call
+     * @param date the date of the request
+     * @param nonce the nonce of the request
+     * @param body the body of the request
+     * @param mode the operation mode
+     * @param parser used to convert the response body to the result
+     *
+     * @return the parsed response
      *
      * @throws IOException if the request fails
      * @throws NoSuchAlgorithmException if the algorithm is not supported
@@ -195,58 +441,674 @@ public abstract class AOperation {
      * @throws ServerException if the server has an error
      * @throws ServiceNotFoundException if the service is not found
      * @throws PermissionDeniedException if the permission is denied
+     * @throws ParseException if the response is not valid JSON
      */
-    String executeRequest(String method, String endpoint, Date date, String nonce, Map<String, Object> body, String mode) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException {
-        String url = this.buildUrl(endpoint);
-        String authorization;
-        String trxID = null;
-        if (body != null && body.containsKey("trxID")) {
-            trxID = (String) body.get("trxID");
-            body.remove("trxID");
+    <T, E extends Exception> T executeRequest(String method, String endpoint, Date date, String nonce, Map<String, Object> body, String mode, ResponseParser<T, E> parser) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException, ParseException, E {
+        return this.execute(this.buildRequest(method, endpoint, date, nonce, body, mode), getDeadline(endpoint), parser);
+    }
+
+    /**
+     * Execute the POST request of a typed body, serialized straight to the bytes sent
+     * @param endpoint the endpoint to call
+     * @param request the body of the request
+     * @param parser used to convert the response body to the result
+     *
+     * @return the parsed response
+     *
+     * @throws IOException if the request fails
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is not valid
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ServerException if the server has an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if the permission is denied
+     * @throws ParseException if the response is not valid JSON
+     */
+    <T, E extends Exception> T executeRequest(String endpoint, ARequest request, ResponseParser<T, E> parser) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException, ParseException, E {
+        return this.execute(this.buildRequest(endpoint, request), getDeadline(endpoint), parser);
+    }
+
+    private <T, E extends Exception> T execute(TransportRequest request, Deadline deadline, ResponseParser<T, E> parser) throws IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException, ParseException, E {
+        try (TransportResponse response = this.openRequest(request, deadline)) {
+            return parser.parse(response.getReader());
+        }
+    }
+
+    /**
+     * Send the request until a final response is received.
+     *
+     * The request runs on the calling thread and no monitor is held around the network I/O, so blocking operations
+     * called from virtual threads, e.g. submitted to {@link RequestExecutor#get()}, only take a carrier thread while
+     * they compute. To keep many calls in flight from platform threads, use the asynchronous variants instead. The
+     * attempts, and the delays between them, must fit before the {@link Deadline} entered by the caller and within the time budget of the
+     * endpoint ({@link MeSomb#callTimeout}).
+     *
+     * @param request the signed request
+     * @param deadline the deadline of the caller, or null
+     *
+     * @return the successful response, to be closed by the caller
+     *
+     * @throws IOException if the request fails
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ServerException if the server has an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if the permission is denied
+     */
+    private TransportResponse openRequest(TransportRequest request, Deadline deadline) throws IOException, InvalidClientRequestException, ServerException, ServiceNotFoundException, PermissionDeniedException {
+        boolean idempotent = isIdempotent(request);
+        RetryPolicy retryPolicy = RetryPolicy.fromSettings();
+        RateLimiter rateLimiter = MeSomb.rateLimiter;
+        CircuitBreaker circuitBreaker = MeSomb.circuitBreaker;
+        ConcurrencyLimiter concurrencyLimiter = MeSomb.concurrencyLimiter;
+        String limitKey = getLimitKey(request);
+        for (int attempt = 0; ; attempt++) {
+            if (deadline != null) {
+                deadline.check();
+            }
+            if (rateLimiter != null) {
+                rateLimiter.acquire(this.getService(), this.target, request.getMethod(), deadline);
+            }
+            CircuitBreaker.Permit permit = circuitBreaker != null ? circuitBreaker.acquire(this.getService(), this.target) : null;
+            if (concurrencyLimiter != null) {
+                try {
+                    if (deadline != null) {
+                        concurrencyLimiter.acquire(limitKey, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+                    } else {
+                        concurrencyLimiter.acquire(limitKey);
+                    }
+                } catch (InterruptedIOException e) {
+                    releasePermit(circuitBreaker, permit);
+                    throw e;
+                }
+            }
+            long start = System.nanoTime();
+            TransportResponse response;
+            try {
+                response = this.send(withDeadline(request, deadline));
+            } catch (IOException e) {
+                recordResult(circuitBreaker, permit, start, true);
+                releaseSlot(concurrencyLimiter, limitKey, start, true);
+                long delay = retryPolicy.getDelayMillis(attempt, null);
+                if (!retryPolicy.shouldRetry(attempt, idempotent, e) || !hasTimeFor(deadline, delay)) {
+                    throw e;
+                }
+                sleep(delay);
+                continue;
+            } catch (RuntimeException e) {
+                releasePermit(circuitBreaker, permit);
+                releaseSlot(concurrencyLimiter, limitKey);
+                throw e;
+            }
+            recordResult(circuitBreaker, permit, start, response.getStatusCode() >= 500);
+            releaseSlot(concurrencyLimiter, limitKey, start, isDropped(response));
+
+            String retryAfter = response.getHeader("Retry-After");
+            if (response.getStatusCode() < 400 || !retryPolicy.shouldRetry(attempt, idempotent, response.getStatusCode(), retryAfter)) {
+                return this.processResponse(response);
+            }
+            long delay = retryPolicy.getDelayMillis(attempt, retryAfter);
+            if (!hasTimeFor(deadline, delay)) {
+                return this.processResponse(response);
+            }
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    /**
+     * Send the request and wait for its response. GET requests are hedged when {@link MeSomb#hedgingPolicy} is set.
+     *
+     * @param request the request
+     * @return the response
+     * @throws IOException if the request fails
+     */
+    private TransportResponse send(TransportRequest request) throws IOException {
+        if (!request.getMethod().equals("GET") || MeSomb.hedgingPolicy == null) {
+            return this.getTransport().execute(request);
+        }
+        Set<CompletableFuture<TransportResponse>> calls = ConcurrentHashMap.newKeySet();
+        CompletableFuture<TransportResponse> future = this.enqueue(request, calls);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.thenAccept(AOperation::closeQuietly);
+            calls.forEach(call -> call.cancel(true));
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for the response");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
         }
-        if (!method.equals("GET")) {
-            assert body != null;
-            authorization = this.getAuthorization(method, endpoint, date, nonce, new TreeMap<String, String>() {{
-                put("content-type", JSON.toString());
-            }}, body);
-        } else {
-            authorization = this.getAuthorization(method, endpoint, date, nonce);
+    }
+
+    /**
+     * Send the request without blocking.
+     *
+     * For GET requests with a {@link MeSomb#hedgingPolicy}, the same request is sent a second time if no response
+     * arrived after the hedging delay, if the rate limiter, the circuit breaker and the concurrency limiter let it through
+     * right away. The first response completes the future and the other call is cancelled; the future fails only once
+     * every call has failed.
+     *
+     * @param request the request
+     * @param calls collects the calls sent, so that they can be cancelled
+     * @return a future completed with the first response received
+     */
+    private CompletableFuture<TransportResponse> enqueue(TransportRequest request, Set<CompletableFuture<TransportResponse>> calls) {
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        HedgingPolicy hedgingPolicy = request.getMethod().equals("GET") ? MeSomb.hedgingPolicy : null;
+        // identifiers are replaced so that every call of an endpoint feeds the same latencies, this is also the key of
+        // the concurrency limiter
+        String endpoint = getLimitKey(request);
+        HttpTransport transport = this.getTransport();
+        AtomicInteger pending = new AtomicInteger(1);
+        long start = System.nanoTime();
+        Consumer<CompletableFuture<TransportResponse>> watch = call -> call.whenComplete((response, error) -> {
+            if (error != null) {
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                return;
+            }
+            if (!result.complete(response)) {
+                closeQuietly(response);
+                return;
+            }
+            if (hedgingPolicy != null) {
+                hedgingPolicy.record(endpoint, System.nanoTime() - start);
+            }
+            for (CompletableFuture<TransportResponse> other : calls) {
+                if (other != call) {
+                    other.cancel(true);
+                }
+            }
+        });
+        CompletableFuture<TransportResponse> call = transport.executeAsync(request);
+        calls.add(call);
+        watch.accept(call);
+        if (hedgingPolicy != null) {
+            ScheduledFuture<?> hedging = schedule(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                CompletableFuture<TransportResponse> hedge = this.sendHedge(transport, request, endpoint);
+                if (hedge == null) {
+                    return;
+                }
+                pending.incrementAndGet();
+                calls.add(hedge);
+                watch.accept(hedge);
+            }, hedgingPolicy.getDelayMillis(endpoint), TimeUnit.MILLISECONDS);
+            // no need to keep the hedge scheduled once a response arrived
+            result.whenComplete((response, error) -> hedging.cancel(false));
         }
+        return result;
+    }
 
-        OkHttpClient client = new OkHttpClient.Builder().readTimeout(MeSomb.requestTimeout, TimeUnit.SECONDS).build();
+    /**
+     * Send a hedged call if the rate limiter, the circuit breaker and the concurrency limiter let it through right away:
+     * a hedge never waits. Its permit and its slot are given back once it completes.
+     *
+     * @param transport the transport
+     * @param request the request
+     * @param limitKey the key of the request in the concurrency limiter
+     * @return the hedged call, null if it was not sent
+     */
+    private CompletableFuture<TransportResponse> sendHedge(HttpTransport transport, TransportRequest request, String limitKey) {
+        RateLimiter rateLimiter = MeSomb.rateLimiter;
+        CircuitBreaker circuitBreaker = MeSomb.circuitBreaker;
+        ConcurrencyLimiter concurrencyLimiter = MeSomb.concurrencyLimiter;
+        if (rateLimiter != null && !rateLimiter.tryAcquire(this.getService(), this.target, request.getMethod())) {
+            return null;
+        }
+        CircuitBreaker.Permit permit = circuitBreaker != null ? circuitBreaker.tryAcquire(this.getService(), this.target) : null;
+        if (circuitBreaker != null && permit == null) {
+            return null;
+        }
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire(limitKey)) {
+            releasePermit(circuitBreaker, permit);
+            return null;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> hedge = transport.executeAsync(request);
+        hedge.whenComplete((response, error) -> {
+            if (error instanceof CancellationException) {
+                // the other call answered first
+                releasePermit(circuitBreaker, permit);
+                releaseSlot(concurrencyLimiter, limitKey);
+            } else if (error != null) {
+                recordResult(circuitBreaker, permit, start, true);
+                releaseSlot(concurrencyLimiter, limitKey, start, true);
+            } else {
+                recordResult(circuitBreaker, permit, start, response.getStatusCode() >= 500);
+                releaseSlot(concurrencyLimiter, limitKey, start, isDropped(response));
+            }
+        });
+        return hedge;
+    }
 
-        Request.Builder builder = new Request.Builder()
-                .url(url)
-                .method(method, body != null ? RequestBody.create(JSONObject.toJSONString(body), JSON) : null)
-                .addHeader("x-mesomb-date", String.valueOf(date.getTime() / 1000))
-                .addHeader("x-mesomb-nonce", nonce)
-                .addHeader("Authorization", authorization)
-                .addHeader("X-MeSomb-Source", "MeSombJava/" + MeSomb.version)
-                .addHeader("Accept-Language", language);
-        if (getService().equals("payment")) {
-            builder = builder.addHeader("X-MeSomb-Application", target);
+    private static void recordResult(CircuitBreaker circuitBreaker, CircuitBreaker.Permit permit, long start, boolean failure) {
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(permit, System.nanoTime() - start, failure);
         }
-        if (getService().equals("wallet")) {
-            builder = builder.addHeader("X-MeSomb-Provider", target);
+    }
+
+    private static void releasePermit(CircuitBreaker circuitBreaker, CircuitBreaker.Permit permit) {
+        if (circuitBreaker != null) {
+            circuitBreaker.release(permit);
         }
-        if (getService().equals("fundraising")) {
-            builder = builder.addHeader("X-MeSomb-Fund", target);
+    }
+
+    /**
+     * Give back the concurrency slot of a completed call
+     */
+    private static void releaseSlot(ConcurrencyLimiter concurrencyLimiter, String limitKey, long start, boolean dropped) {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(limitKey, System.nanoTime() - start, dropped);
         }
-        if (mode != null) {
-            builder = builder.addHeader("X-MeSomb-OperationMode", mode);
+    }
+
+    /**
+     * Give back the concurrency slot of a cancelled call
+     */
+    private static void releaseSlot(ConcurrencyLimiter concurrencyLimiter, String limitKey) {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(limitKey);
         }
-        if (trxID != null) {
-            builder = builder.addHeader("X-MeSomb-TrxID", trxID);
+    }
+
+    /**
+     * Check if the response tells that the server is overloaded
+     *
+     * @param response the response
+     * @return true for 5xx and 429 responses
+     */
+    private static boolean isDropped(TransportResponse response) {
+        return response.getStatusCode() >= 500 || response.getStatusCode() == 429;
+    }
+
+    private static void closeQuietly(TransportResponse response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Get the key under which the concurrency of the request is limited: its path, with identifiers replaced so that
+     * all the calls of an endpoint share the same limit.
+     *
+     * @param request the request
+     * @return the key
+     */
+    private static String getLimitKey(TransportRequest request) {
+        return normalizePath(request.getUri().getRawPath());
+    }
+
+    /**
+     * Replace the numeric segments of a path by {id}
+     */
+    private static String normalizePath(String path) {
+        StringBuilder key = new StringBuilder(path.length());
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (i > 0) {
+                key.append('/');
+            }
+            key.append(!segment.isEmpty() && segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Get the deadline of an operation: the one entered by the caller, if any, shortened by the time budget of the
+     * endpoint ({@link MeSomb#callTimeouts}, or else {@link MeSomb#callTimeout}).
+     *
+     * @param endpoint the endpoint to call
+     * @return the deadline or null if the operation is not time bounded
+     */
+    private static Deadline getDeadline(String endpoint) {
+        Deadline deadline = Deadline.current();
+        int query = endpoint.indexOf('?');
+        Integer timeout = MeSomb.callTimeouts.get(normalizePath(query >= 0 ? endpoint.substring(0, query) : endpoint));
+        int budget = timeout != null ? timeout : MeSomb.callTimeout;
+        if (budget > 0) {
+            deadline = Deadline.after(budget, TimeUnit.SECONDS).min(deadline);
+        }
+        return deadline;
+    }
+
+    /**
+     * Create the timer of the asynchronous calls: deadlines, retry delays and rate limiter waits. Cancelled tasks are
+     * removed right away, so that the queue only holds the calls in flight.
+     */
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mesomb-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Run a task after a delay. The timer only hands over to the common pool, so that the task and the dependents of
+     * the futures it completes never run on the timer thread.
+     *
+     * @param task the task
+     * @param delay the delay
+     * @param unit the unit of the delay
+     * @return the scheduled task, to cancel it
+     */
+    private static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(() -> ForkJoinPool.commonPool().execute(task), delay, unit);
+    }
+
+    /**
+     * Limit the time of an attempt to what is left before the deadline
+     */
+    private static TransportRequest withDeadline(TransportRequest request, Deadline deadline) {
+        return deadline != null ? request.withTimeout(Duration.ofNanos(deadline.remainingNanos())) : request;
+    }
+
+    /**
+     * Check if a retry sent after the delay would still start before the deadline
+     */
+    private static boolean hasTimeFor(Deadline deadline, long delayMillis) {
+        return deadline == null || TimeUnit.MILLISECONDS.toNanos(delayMillis) < deadline.remainingNanos();
+    }
+
+    /**
+     * Check if the request can safely be sent more than once. A retry sends the exact same signed request, so the
+     * nonce is reused; the server treats it as the same operation only for reads or when a trxID is given.
+     *
+     * @param request the request
+     * @return true if the request is idempotent
+     */
+    private static boolean isIdempotent(TransportRequest request) {
+        return request.getMethod().equals("GET") || request.getHeader("X-MeSomb-TrxID") != null;
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting to retry the request");
+            exception.initCause(e);
+            throw exception;
         }
+    }
+
+    /**
+     * Execute the request without blocking the caller
+     * @param method HTTP method
+     * @param endpoint the endpoint to call
+     * @param date the date of the request
+     * @param parser used to convert the response body to the result
+     *
+     * @return a future completed with the parsed response
+     */
+    <T> CompletableFuture<T> executeRequestAsync(String method, String endpoint, Date date, ResponseParser<T, ?> parser) {
+        return this.executeRequestAsync(method, endpoint, date, "", null, null, parser);
+    }
+
+    /**
+     * Execute the request without blocking the caller
+     * @param method HTTP method
+     * @param endpoint the endpoint to call
+     * @param date the date of the request
+     * @param nonce the nonce of the request
+     * @param body the body of the request
+     * @param parser used to convert the response body to the result
+     *
+     * @return a future completed with the parsed response
+     */
+    <T> CompletableFuture<T> executeRequestAsync(String method, String endpoint, Date date, String nonce, Map<String, Object> body, ResponseParser<T, ?> parser) {
+        return this.executeRequestAsync(method, endpoint, date, nonce, body, null, parser);
+    }
+
+    /**
+     * Execute the request without blocking the caller.
+     *
+     * The call is enqueued on the transport dispatcher; the returned future is completed from the dispatcher thread
+     * either with the parsed response or with the same exception the blocking version would have thrown. Retries are
+     * scheduled without blocking any thread. Cancelling the future cancels the underlying call. The deadline in effect
+     * when this method is called applies as for the blocking version; once it expires the future fails with an
+     * {@link InterruptedIOException}.
+     *
+     * @param method HTTP method
+     * @param endpoint the endpoint to call
+     * @param date the date of the request
+     * @param nonce the nonce of the request
+     * @param body the body of the request
+     * @param mode the operation mode
+     * @param parser used to convert the response body to the result
+     *
+     * @return a future completed with the parsed response
+     */
+    <T> CompletableFuture<T> executeRequestAsync(String method, String endpoint, Date date, String nonce, Map<String, Object> body, String mode, ResponseParser<T, ?> parser) {
+        TransportRequest request;
+        try {
+            request = this.buildRequest(method, endpoint, date, nonce, body, mode);
+        } catch (Exception e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return this.executeAsync(request, getDeadline(endpoint), parser);
+    }
+
+    /**
+     * Execute the POST request of a typed body without blocking the caller, as
+     * {@link #executeRequestAsync(String, String, Date, String, Map, String, ResponseParser)} does
+     * @param endpoint the endpoint to call
+     * @param request the body of the request
+     * @param parser used to convert the response body to the result
+     *
+     * @return a future completed with the parsed response
+     */
+    <T> CompletableFuture<T> executeRequestAsync(String endpoint, ARequest request, ResponseParser<T, ?> parser) {
+        TransportRequest transportRequest;
+        try {
+            transportRequest = this.buildRequest(endpoint, request);
+        } catch (Exception e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return this.executeAsync(transportRequest, getDeadline(endpoint), parser);
+    }
 
-        try (Response response = client.newCall(builder.build()).execute()) {
-            if (response.code() >= 400) {
-                assert response.body() != null;
-                this.processClientException(response.code(), response.body().string());
+    private <T> CompletableFuture<T> executeAsync(TransportRequest request, Deadline deadline, ResponseParser<T, ?> parser) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AsyncCall<T> call = new AsyncCall<>(request, deadline, future, parser);
+        call.send(0);
+        ScheduledFuture<?> timeout = null;
+        if (deadline != null) {
+            timeout = schedule(() -> {
+                if (future.completeExceptionally(new InterruptedIOException("Deadline exceeded"))) {
+                    call.cancel();
+                }
+            }, Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        }
+        ScheduledFuture<?> scheduled = timeout;
+        future.whenComplete((result, error) -> {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * State of an asynchronous request across its attempts
+     * @param <T> type of the result
+     */
+    private class AsyncCall<T> {
+        private final TransportRequest request;
+        private final boolean idempotent;
+        private final RetryPolicy retryPolicy = RetryPolicy.fromSettings();
+        private final RateLimiter rateLimiter = MeSomb.rateLimiter;
+        private final CircuitBreaker circuitBreaker = MeSomb.circuitBreaker;
+        private final ConcurrencyLimiter concurrencyLimiter = MeSomb.concurrencyLimiter;
+        private final String limitKey;
+        private final Deadline deadline;
+        private final CompletableFuture<T> future;
+        private final ResponseParser<T, ?> parser;
+        private final Set<CompletableFuture<TransportResponse>> calls = ConcurrentHashMap.newKeySet();
+        // permit of the circuit breaker for the attempt in flight, attempts do not overlap
+        private CircuitBreaker.Permit permit;
+
+        AsyncCall(TransportRequest request, Deadline deadline, CompletableFuture<T> future, ResponseParser<T, ?> parser) {
+            this.request = request;
+            this.idempotent = isIdempotent(request);
+            this.limitKey = getLimitKey(request);
+            this.deadline = deadline;
+            this.future = future;
+            this.parser = parser;
+        }
+
+        /**
+         * Start an attempt, waiting for the rate limiter without blocking if needed
+         * @param attempt number of retries already done
+         */
+        void send(int attempt) {
+            if (future.isDone()) {
+                return;
+            }
+            if (rateLimiter != null) {
+                long wait;
+                try {
+                    wait = rateLimiter.reserve(getService(), target, request.getMethod(), deadline);
+                } catch (RateLimitExceededException | InterruptedIOException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                if (wait > 0) {
+                    schedule(() -> this.dispatch(attempt), wait, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            }
+            this.dispatch(attempt);
+        }
+
+        private void dispatch(int attempt) {
+            if (future.isDone()) {
+                return;
+            }
+            if (circuitBreaker != null) {
+                try {
+                    permit = circuitBreaker.acquire(getService(), target);
+                } catch (CircuitBreakerOpenException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+            }
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.acquireAsync(limitKey, () -> this.start(attempt));
+            } else {
+                this.start(attempt);
+            }
+        }
+
+        /**
+         * Send the attempt once the circuit breaker and the concurrency limiter let it through
+         * @param attempt number of retries already done
+         */
+        private void start(int attempt) {
+            if (future.isDone()) {
+                // cancelled while waiting for a concurrency slot
+                releasePermit(circuitBreaker, permit);
+                releaseSlot(concurrencyLimiter, limitKey);
+                return;
+            }
+            long start = System.nanoTime();
+            enqueue(withDeadline(request, deadline), calls).whenComplete((response, error) -> {
+                if (error != null) {
+                    this.onFailure(attempt, start, error instanceof CompletionException ? error.getCause() : error);
+                } else {
+                    this.onResponse(attempt, start, response);
+                }
+            });
+            if (future.isCancelled()) {
+                this.cancel();
             }
-            assert response.body() != null;
-            return response.body().string();
+        }
+
+        private void onFailure(int attempt, long start, Throwable error) {
+            if (future.isDone()) {
+                // cancelled by the caller or the deadline
+                releasePermit(circuitBreaker, permit);
+                releaseSlot(concurrencyLimiter, limitKey);
+                return;
+            }
+            recordResult(circuitBreaker, permit, start, true);
+            releaseSlot(concurrencyLimiter, limitKey, start, true);
+            long delay = retryPolicy.getDelayMillis(attempt, null);
+            if (error instanceof IOException && retryPolicy.shouldRetry(attempt, idempotent, (IOException) error) && hasTimeFor(deadline, delay)) {
+                this.retry(attempt, delay);
+            } else {
+                future.completeExceptionally(error);
+            }
+        }
+
+        private void onResponse(int attempt, long start, TransportResponse response) {
+            recordResult(circuitBreaker, permit, start, response.getStatusCode() >= 500);
+            releaseSlot(concurrencyLimiter, limitKey, start, isDropped(response));
+            try (TransportResponse r = response) {
+                String retryAfter = r.getHeader("Retry-After");
+                if (r.getStatusCode() >= 400 && retryPolicy.shouldRetry(attempt, idempotent, r.getStatusCode(), retryAfter)) {
+                    long delay = retryPolicy.getDelayMillis(attempt, retryAfter);
+                    if (hasTimeFor(deadline, delay)) {
+                        this.retry(attempt, delay);
+                        return;
+                    }
+                }
+                future.complete(parser.parse(processResponse(r).getReader()));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void retry(int attempt, long delay) {
+            schedule(() -> this.send(attempt + 1), delay, TimeUnit.MILLISECONDS);
+        }
+
+        void cancel() {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    /**
+     * Endpoint templates compiled for a base URL and an API version
+     */
+    private static class Templates {
+        final String apiBase;
+        final String apiVersion;
+        final ConcurrentMap<String, EndpointTemplate> endpoints = new ConcurrentHashMap<>();
+
+        Templates(String apiBase, String apiVersion) {
+            this.apiBase = apiBase;
+            this.apiVersion = apiVersion;
         }
     }
 
+    /**
+     * Convert the body of a response to the result of an operation
+     * @param <T> type of the result
+     * @param <E> other exception thrown while building the result
+     */
+    @FunctionalInterface
+    interface ResponseParser<T, E extends Exception> {
+        T parse(Reader response) throws IOException, ParseException, E;
+    }
 }
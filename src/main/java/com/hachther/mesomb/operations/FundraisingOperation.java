@@ -1,24 +1,28 @@
 package com.hachther.mesomb.operations;
 
+import com.hachther.mesomb.MeSomb;
 import com.hachther.mesomb.exceptions.InvalidClientRequestException;
 import com.hachther.mesomb.exceptions.PermissionDeniedException;
 import com.hachther.mesomb.exceptions.ServerException;
 import com.hachther.mesomb.exceptions.ServiceNotFoundException;
+import com.hachther.mesomb.http.HttpTransport;
 import com.hachther.mesomb.models.Contribution;
 import com.hachther.mesomb.models.ContributionResponse;
+import com.hachther.mesomb.requests.ContributionRequest;
+import com.hachther.mesomb.util.JsonReader;
 import com.hachther.mesomb.util.RandomGenerator;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class FundraisingOperation extends AOperation {
     public FundraisingOperation(String fundKey, String accessKey, String secretKey, String language) {
@@ -29,6 +33,10 @@ public class FundraisingOperation extends AOperation {
         super(fundKey, accessKey, secretKey, "en");
     }
 
+    public FundraisingOperation(String fundKey, String accessKey, String secretKey, String language, HttpTransport transport) {
+        super(fundKey, accessKey, secretKey, language, transport);
+    }
+
     /**
      * Collects a payment using the provided parameters.
      *
@@ -61,6 +69,50 @@ public class FundraisingOperation extends AOperation {
     public ContributionResponse makeContribution(Map<String, Object> params) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "fundraising/contribute/";
 
+        return this.executeRequest("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildContributionBody(params), (String) params.getOrDefault("mode", "synchronous"), FundraisingOperation::parseContributionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeContribution(Map)}
+     *
+     * @param params same as {@link #makeContribution(Map)}
+     * @return a future completed with the ContributionResponse, or with the exception makeContribution would have thrown
+     */
+    public CompletableFuture<ContributionResponse> makeContributionAsync(Map<String, Object> params) {
+        String endpoint = "fundraising/contribute/";
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildContributionBody(params), (String) params.getOrDefault("mode", "synchronous"), FundraisingOperation::parseContributionResponse);
+    }
+
+    /**
+     * Make a contribution to the fund, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link ContributionRequest#builder}
+     * @return a ContributionResponse object containing the response from the server
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public ContributionResponse makeContribution(ContributionRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("fundraising/contribute/", request, FundraisingOperation::parseContributionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeContribution(ContributionRequest)}
+     *
+     * @param request same as {@link #makeContribution(ContributionRequest)}
+     * @return a future completed with the ContributionResponse, or with the exception makeContribution would have thrown
+     */
+    public CompletableFuture<ContributionResponse> makeContributionAsync(ContributionRequest request) {
+        return this.executeRequestAsync("fundraising/contribute/", request, FundraisingOperation::parseContributionResponse);
+    }
+
+    private static Map<String, Object> buildContributionBody(Map<String, Object> params) {
         Map<String, Object> body = new HashMap<>();
         body.put("service", params.get("service"));
         body.put("amount", params.get("amount"));
@@ -83,8 +135,7 @@ public class FundraisingOperation extends AOperation {
             body.put("contact", params.get("contact"));
         }
 
-        JSONParser parser = new JSONParser();
-        return new ContributionResponse((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), body, (String) params.getOrDefault("mode", "synchronous"))));
+        return body;
     }
 
 
@@ -108,13 +159,7 @@ public class FundraisingOperation extends AOperation {
     public Contribution[] getContributions(String[] ids, String source) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "fundraising/contributions/?ids=" + String.join(",", ids) + "&source=" + source;
 
-        JSONParser parser = new JSONParser();
-        JSONArray response = (JSONArray) parser.parse(this.executeRequest("GET", endpoint, new Date()));
-        Contribution[] contributions = new Contribution[response.size()];
-        for (int i = 0; i < response.size(); i++) {
-            contributions[i] = new Contribution((JSONObject) response.get(i));
-        }
-        return contributions;
+        return this.executeRequest("GET", endpoint, this.now(), FundraisingOperation::parseContributions);
     }
 
     /**
@@ -137,6 +182,31 @@ public class FundraisingOperation extends AOperation {
         return this.getContributions(ids, "MESOMB");
     }
 
+    /**
+     * Asynchronous version of {@link #getContributions(String[], String)}
+     *
+     * @param ids Ids of contributions to fetch
+     * @param source Source of the contribution with possible values MESOMB, EXTERNAL
+     *
+     * @return a future completed with the contributions fetched, or with the exception getContributions would have thrown
+     */
+    public CompletableFuture<Contribution[]> getContributionsAsync(String[] ids, String source) {
+        String endpoint = "fundraising/contributions/?ids=" + String.join(",", ids) + "&source=" + source;
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), FundraisingOperation::parseContributions);
+    }
+
+    /**
+     * Asynchronous version of {@link #getContributions(String[])}
+     *
+     * @param ids Ids of contributions to fetch
+     *
+     * @return a future completed with the contributions fetched, or with the exception getContributions would have thrown
+     */
+    public CompletableFuture<Contribution[]> getContributionsAsync(String[] ids) {
+        return this.getContributionsAsync(ids, "MESOMB");
+    }
+
     /**
      * Check contributions stored in MeSomb based on the list
      *
@@ -156,13 +226,7 @@ public class FundraisingOperation extends AOperation {
     public Contribution[] checkContributions(String[] ids, String source) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "fundraising/contributions/check/?ids=" + String.join(",", ids) + "&source=" + source;
 
-        JSONParser parser = new JSONParser();
-        JSONArray response = (JSONArray) parser.parse(this.executeRequest("GET", endpoint, new Date()));
-        Contribution[] contributions = new Contribution[response.size()];
-        for (int i = 0; i < response.size(); i++) {
-            contributions[i] = new Contribution((JSONObject) response.get(i));
-        }
-        return contributions;
+        return this.executeRequest("GET", endpoint, this.now(), FundraisingOperation::parseContributions);
     }
 
     /**
@@ -185,7 +249,45 @@ public class FundraisingOperation extends AOperation {
         return this.checkContributions(ids, "MESOMB");
     }
 
+    /**
+     * Asynchronous version of {@link #checkContributions(String[], String)}
+     *
+     * @param ids Ids of contributions to fetch
+     * @param source Source of the contribution with possible values MESOMB, EXTERNAL
+     *
+     * @return a future completed with the contributions fetched, or with the exception checkContributions would have thrown
+     */
+    public CompletableFuture<Contribution[]> checkContributionsAsync(String[] ids, String source) {
+        String endpoint = "fundraising/contributions/check/?ids=" + String.join(",", ids) + "&source=" + source;
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), FundraisingOperation::parseContributions);
+    }
+
+    /**
+     * Asynchronous version of {@link #checkContributions(String[])}
+     *
+     * @param ids Ids of contributions to fetch
+     *
+     * @return a future completed with the contributions fetched, or with the exception checkContributions would have thrown
+     */
+    public CompletableFuture<Contribution[]> checkContributionsAsync(String[] ids) {
+        return this.checkContributionsAsync(ids, "MESOMB");
+    }
 
+    private static ContributionResponse parseContributionResponse(Reader data) throws IOException, ParseException, java.text.ParseException {
+        return new ContributionResponse(new JsonReader(data));
+    }
+
+    private static Contribution[] parseContributions(Reader data) throws IOException, ParseException, java.text.ParseException {
+        JsonReader reader = new JsonReader(data);
+        List<Contribution> contributions = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            contributions.add(new Contribution(reader, MeSomb.lazyModels));
+        }
+        reader.endArray();
+        return contributions.toArray(new Contribution[0]);
+    }
 
     @Override
     public String getService() {
@@ -1,26 +1,31 @@
 package com.hachther.mesomb.operations;
 
+import com.hachther.mesomb.MeSomb;
 import com.hachther.mesomb.exceptions.InvalidClientRequestException;
 import com.hachther.mesomb.exceptions.PermissionDeniedException;
 import com.hachther.mesomb.exceptions.ServerException;
 import com.hachther.mesomb.exceptions.ServiceNotFoundException;
+import com.hachther.mesomb.http.HttpTransport;
 import com.hachther.mesomb.models.Application;
 import com.hachther.mesomb.models.Transaction;
 import com.hachther.mesomb.models.TransactionResponse;
+import com.hachther.mesomb.requests.AirtimeRequest;
+import com.hachther.mesomb.requests.CollectRequest;
+import com.hachther.mesomb.requests.DepositRequest;
+import com.hachther.mesomb.util.JsonReader;
 import com.hachther.mesomb.util.RandomGenerator;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Containing all operations provided by MeSomb Payment Service.
@@ -34,6 +39,10 @@ public class PaymentOperation extends AOperation {
         super(applicationKey, accessKey, secretKey, "en");
     }
 
+    public PaymentOperation(String applicationKey, String accessKey, String secretKey, String language, HttpTransport transport) {
+        super(applicationKey, accessKey, secretKey, language, transport);
+    }
+
     /**
      * Collects a payment using the provided parameters.
      *
@@ -65,6 +74,50 @@ public class PaymentOperation extends AOperation {
     public TransactionResponse makeCollect(Map<String, Object> params) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "payment/collect/";
 
+        return this.executeRequest("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildCollectBody(params), (String) params.getOrDefault("mode", "synchronous"), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeCollect(Map)}
+     *
+     * @param params same as {@link #makeCollect(Map)}
+     * @return a future completed with the TransactionResponse, or with the exception makeCollect would have thrown
+     */
+    public CompletableFuture<TransactionResponse> makeCollectAsync(Map<String, Object> params) {
+        String endpoint = "payment/collect/";
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildCollectBody(params), (String) params.getOrDefault("mode", "synchronous"), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Collects a payment, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link CollectRequest#builder}
+     * @return a TransactionResponse object containing the response from the server
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public TransactionResponse makeCollect(CollectRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("payment/collect/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeCollect(CollectRequest)}
+     *
+     * @param request same as {@link #makeCollect(CollectRequest)}
+     * @return a future completed with the TransactionResponse, or with the exception makeCollect would have thrown
+     */
+    public CompletableFuture<TransactionResponse> makeCollectAsync(CollectRequest request) {
+        return this.executeRequestAsync("payment/collect/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    private static Map<String, Object> buildCollectBody(Map<String, Object> params) {
         Map<String, Object> body = new HashMap<>();
         body.put("amount", params.get("amount"));
         body.put("service", params.get("service"));
@@ -91,8 +144,7 @@ public class PaymentOperation extends AOperation {
             body.put("products", params.get("products"));
         }
 
-        JSONParser parser = new JSONParser();
-        return new TransactionResponse((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), body, (String) params.getOrDefault("mode", "synchronous"))));
+        return body;
     }
 
     /**
@@ -125,6 +177,50 @@ public class PaymentOperation extends AOperation {
     public TransactionResponse purchaseAirtime(Map<String, Object> params) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "payment/airtime/";
 
+        return this.executeRequest("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildAirtimeBody(params), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #purchaseAirtime(Map)}
+     *
+     * @param params same as {@link #purchaseAirtime(Map)}
+     * @return a future completed with the TransactionResponse, or with the exception purchaseAirtime would have thrown
+     */
+    public CompletableFuture<TransactionResponse> purchaseAirtimeAsync(Map<String, Object> params) {
+        String endpoint = "payment/airtime/";
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildAirtimeBody(params), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Purchase airtime, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link AirtimeRequest#builder}
+     * @return a TransactionResponse object containing the response from the server
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public TransactionResponse purchaseAirtime(AirtimeRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("payment/airtime/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #purchaseAirtime(AirtimeRequest)}
+     *
+     * @param request same as {@link #purchaseAirtime(AirtimeRequest)}
+     * @return a future completed with the TransactionResponse, or with the exception purchaseAirtime would have thrown
+     */
+    public CompletableFuture<TransactionResponse> purchaseAirtimeAsync(AirtimeRequest request) {
+        return this.executeRequestAsync("payment/airtime/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    private static Map<String, Object> buildAirtimeBody(Map<String, Object> params) {
         Map<String, Object> body = new HashMap<>();
         body.put("amount", params.get("amount"));
         body.put("service", params.get("service"));
@@ -150,8 +246,7 @@ public class PaymentOperation extends AOperation {
             body.put("products", params.get("products"));
         }
 
-        JSONParser parser = new JSONParser();
-        return new TransactionResponse((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), body)));
+        return body;
     }
 
     /**
@@ -184,6 +279,50 @@ public class PaymentOperation extends AOperation {
     public TransactionResponse makeDeposit(Map<String, Object> params) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
         String endpoint = "payment/deposit/";
 
+        return this.executeRequest("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildDepositBody(params), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeDeposit(Map)}
+     *
+     * @param params same as {@link #makeDeposit(Map)}
+     * @return a future completed with the TransactionResponse, or with the exception makeDeposit would have thrown
+     */
+    public CompletableFuture<TransactionResponse> makeDepositAsync(Map<String, Object> params) {
+        String endpoint = "payment/deposit/";
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), buildDepositBody(params), PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Make deposit in customer account, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link DepositRequest#builder}
+     * @return a TransactionResponse object containing the response from the server
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public TransactionResponse makeDeposit(DepositRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("payment/deposit/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    /**
+     * Asynchronous version of {@link #makeDeposit(DepositRequest)}
+     *
+     * @param request same as {@link #makeDeposit(DepositRequest)}
+     * @return a future completed with the TransactionResponse, or with the exception makeDeposit would have thrown
+     */
+    public CompletableFuture<TransactionResponse> makeDepositAsync(DepositRequest request) {
+        return this.executeRequestAsync("payment/deposit/", request, PaymentOperation::parseTransactionResponse);
+    }
+
+    private static Map<String, Object> buildDepositBody(Map<String, Object> params) {
         Map<String, Object> body = new HashMap<>();
         body.put("amount", params.get("amount"));
         body.put("service", params.get("service"));
@@ -209,8 +348,7 @@ public class PaymentOperation extends AOperation {
             body.put("products", params.get("products"));
         }
 
-        JSONParser parser = new JSONParser();
-        return new TransactionResponse((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), (String) params.getOrDefault("nonce", RandomGenerator.nonce()), body)));
+        return body;
     }
 
     /**
@@ -229,8 +367,18 @@ public class PaymentOperation extends AOperation {
     public Application getStatus() throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException {
         String endpoint = "payment/status/";
 
-        JSONParser parser = new JSONParser();
-        return new Application((JSONObject) parser.parse(this.executeRequest("GET", endpoint, new Date())));
+        return this.executeRequest("GET", endpoint, this.now(), PaymentOperation::parseApplication);
+    }
+
+    /**
+     * Asynchronous version of {@link #getStatus()}
+     *
+     * @return a future completed with the Application, or with the exception getStatus would have thrown
+     */
+    public CompletableFuture<Application> getStatusAsync() {
+        String endpoint = "payment/status/";
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), PaymentOperation::parseApplication);
     }
 
     /**
@@ -251,19 +399,9 @@ public class PaymentOperation extends AOperation {
      * @throws ParseException if the response cannot be parsed
      */
     public Transaction[] getTransactions(String[] ids, String source) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
-        String[] query = new String[ids.length];
-        for (int i = 0; i < ids.length; i++) {
-            query[i] = "ids=" + ids[i];
-        }
-        String endpoint = "payment/transactions/check/?" + String.join("&", query) + "&source=" + source;
+        String endpoint = buildTransactionsEndpoint(ids, source);
 
-        JSONParser parser = new JSONParser();
-        JSONArray response = (JSONArray) parser.parse(this.executeRequest("GET", endpoint, new Date()));
-        Transaction[] transactions = new Transaction[response.size()];
-        for (int i = 0; i < response.size(); i++) {
-            transactions[i] = new Transaction((JSONObject) response.get(i));
-        }
-        return transactions;
+        return this.executeRequest("GET", endpoint, this.now(), PaymentOperation::parseTransactions);
     }
 
     /**
@@ -286,6 +424,31 @@ public class PaymentOperation extends AOperation {
         return this.getTransactions(ids, "MESOMB");
     }
 
+    /**
+     * Asynchronous version of {@link #getTransactions(String[], String)}
+     *
+     * @param ids Ids of transactions to fetch
+     * @param source Source of the transaction with possible values MESOMB, EXTERNAL
+     *
+     * @return a future completed with the transactions fetched, or with the exception getTransactions would have thrown
+     */
+    public CompletableFuture<Transaction[]> getTransactionsAsync(String[] ids, String source) {
+        String endpoint = buildTransactionsEndpoint(ids, source);
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), PaymentOperation::parseTransactions);
+    }
+
+    /**
+     * Asynchronous version of {@link #getTransactions(String[])}
+     *
+     * @param ids Ids of transactions to fetch
+     *
+     * @return a future completed with the transactions fetched, or with the exception getTransactions would have thrown
+     */
+    public CompletableFuture<Transaction[]> getTransactionsAsync(String[] ids) {
+        return this.getTransactionsAsync(ids, "MESOMB");
+    }
+
     /**
      * Check transactions stored in MeSomb based on the list
      *
@@ -303,19 +466,9 @@ public class PaymentOperation extends AOperation {
      * @throws ParseException if the response cannot be parsed
      */
     public Transaction[] checkTransactions(String[] ids, String source) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
-        String[] query = new String[ids.length];
-        for (int i = 0; i < ids.length; i++) {
-            query[i] = "ids=" + ids[i];
-        }
-        String endpoint = "payment/transactions/check/?" + String.join("&", query) + "&source=" + source;
+        String endpoint = buildTransactionsEndpoint(ids, source);
 
-        JSONParser parser = new JSONParser();
-        JSONArray response = (JSONArray) parser.parse(this.executeRequest("GET", endpoint, new Date()));
-        Transaction[] transactions = new Transaction[response.size()];
-        for (int i = 0; i < response.size(); i++) {
-            transactions[i] = new Transaction((JSONObject) response.get(i));
-        }
-        return transactions;
+        return this.executeRequest("GET", endpoint, this.now(), PaymentOperation::parseTransactions);
     }
 
     /**
@@ -338,6 +491,31 @@ public class PaymentOperation extends AOperation {
         return this.checkTransactions(ids, "MESOMB");
     }
 
+    /**
+     * Asynchronous version of {@link #checkTransactions(String[], String)}
+     *
+     * @param ids Ids of transactions to fetch
+     * @param source Source of the transaction with possible values MESOMB, EXTERNAL
+     *
+     * @return a future completed with the transactions fetched, or with the exception checkTransactions would have thrown
+     */
+    public CompletableFuture<Transaction[]> checkTransactionsAsync(String[] ids, String source) {
+        String endpoint = buildTransactionsEndpoint(ids, source);
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), PaymentOperation::parseTransactions);
+    }
+
+    /**
+     * Asynchronous version of {@link #checkTransactions(String[])}
+     *
+     * @param ids Ids of transactions to fetch
+     *
+     * @return a future completed with the transactions fetched, or with the exception checkTransactions would have thrown
+     */
+    public CompletableFuture<Transaction[]> checkTransactionsAsync(String[] ids) {
+        return this.checkTransactionsAsync(ids, "MESOMB");
+    }
+
     /**
      * Refund a transaction
      * @param id the id of the transaction to refund
@@ -359,6 +537,33 @@ public class PaymentOperation extends AOperation {
     public TransactionResponse refundTransaction(String id, Double amount, String currency, Boolean conversion) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException, java.text.ParseException {
         String endpoint = "payment/refund/";
 
+        return this.executeRequest("POST", endpoint, this.now(), RandomGenerator.nonce(), buildRefundBody(id, amount, currency, conversion), PaymentOperation::parseTransactionResponse);
+    }
+
+    public TransactionResponse refundTransaction(String id) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, ParseException, InvalidKeyException, java.text.ParseException {
+        return this.refundTransaction(id, null, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #refundTransaction(String, Double, String, Boolean)}
+     * @param id the id of the transaction to refund
+     * @param amount the amount to refund (optional)
+     * @param currency the currency of the amount to refund (optional)
+     * @param conversion whether to convert the amount (optional)
+     *
+     * @return a future completed with the TransactionResponse, or with the exception refundTransaction would have thrown
+     */
+    public CompletableFuture<TransactionResponse> refundTransactionAsync(String id, Double amount, String currency, Boolean conversion) {
+        String endpoint = "payment/refund/";
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), RandomGenerator.nonce(), buildRefundBody(id, amount, currency, conversion), PaymentOperation::parseTransactionResponse);
+    }
+
+    public CompletableFuture<TransactionResponse> refundTransactionAsync(String id) {
+        return this.refundTransactionAsync(id, null, null, null);
+    }
+
+    private static Map<String, Object> buildRefundBody(String id, Double amount, String currency, Boolean conversion) {
         Map<String, Object> body = new HashMap<>();
         body.put("id", id);
         if (amount != null) {
@@ -372,12 +577,34 @@ public class PaymentOperation extends AOperation {
             body.put("conversion", conversion);
         }
 
-        JSONParser parser = new JSONParser();
-        return new TransactionResponse((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), RandomGenerator.nonce(), body)));
+        return body;
     }
 
-    public TransactionResponse refundTransaction(String id) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, ParseException, InvalidKeyException, java.text.ParseException {
-        return this.refundTransaction(id, null, null, null);
+    private static String buildTransactionsEndpoint(String[] ids, String source) {
+        String[] query = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            query[i] = "ids=" + ids[i];
+        }
+        return "payment/transactions/check/?" + String.join("&", query) + "&source=" + source;
+    }
+
+    private static TransactionResponse parseTransactionResponse(Reader data) throws IOException, ParseException, java.text.ParseException {
+        return new TransactionResponse(new JsonReader(data));
+    }
+
+    private static Application parseApplication(Reader data) throws IOException, ParseException {
+        return new Application(new JsonReader(data));
+    }
+
+    private static Transaction[] parseTransactions(Reader data) throws IOException, ParseException, java.text.ParseException {
+        JsonReader reader = new JsonReader(data);
+        List<Transaction> transactions = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            transactions.add(new Transaction(reader, MeSomb.lazyModels));
+        }
+        reader.endArray();
+        return transactions.toArray(new Transaction[0]);
     }
 
     @Override
@@ -4,23 +4,26 @@ import com.hachther.mesomb.exceptions.InvalidClientRequestException;
 import com.hachther.mesomb.exceptions.PermissionDeniedException;
 import com.hachther.mesomb.exceptions.ServerException;
 import com.hachther.mesomb.exceptions.ServiceNotFoundException;
+import com.hachther.mesomb.http.HttpTransport;
 import com.hachther.mesomb.models.PaginatedWalletTransactions;
 import com.hachther.mesomb.models.PaginatedWallets;
 import com.hachther.mesomb.models.Wallet;
 import com.hachther.mesomb.models.WalletTransaction;
+import com.hachther.mesomb.requests.WalletAdjustRequest;
+import com.hachther.mesomb.requests.WalletTransferRequest;
+import com.hachther.mesomb.util.JsonReader;
 import com.hachther.mesomb.util.RandomGenerator;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.Date;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class WalletOperation extends AOperation {
     public WalletOperation(String providerKey, String accessKey, String secretKey, String language) {
@@ -31,6 +34,10 @@ public class WalletOperation extends AOperation {
         super(providerKey, accessKey, secretKey, "en");
     }
 
+    public WalletOperation(String providerKey, String accessKey, String secretKey, String language, HttpTransport transport) {
+        super(providerKey, accessKey, secretKey, language, transport);
+    }
+
     /**
      * Create a wallet
      *
@@ -64,8 +71,26 @@ public class WalletOperation extends AOperation {
             nonce = (String) params.remove("nonce");
         }
 
-        JSONParser parser = new JSONParser();
-        return new Wallet((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), nonce, params)));
+        return this.executeRequest("POST", endpoint, this.now(), nonce, params, WalletOperation::parseWallet);
+    }
+
+    /**
+     * Asynchronous version of {@link #createWallet(Map)}
+     *
+     * @param params same as {@link #createWallet(Map)}
+     *
+     * @return a future completed with the Wallet, or with the exception createWallet would have thrown
+     */
+    public CompletableFuture<Wallet> createWalletAsync(Map<String, Object> params) {
+        String endpoint = "wallet/wallets/";
+
+        String nonce = RandomGenerator.nonce();
+
+        if (params.containsKey("nonce")) {
+            nonce = (String) params.remove("nonce");
+        }
+
+        return this.executeRequestAsync("POST", endpoint, this.now(), nonce, params, WalletOperation::parseWallet);
     }
 
     /**
@@ -86,8 +111,20 @@ public class WalletOperation extends AOperation {
     public Wallet getWallet(Long id) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException {
         String endpoint = "wallet/wallets/" + id + "/";
 
-        JSONParser parser = new JSONParser();
-        return new Wallet((JSONObject) parser.parse(this.executeRequest("GET", endpoint, new Date(), RandomGenerator.nonce(), null)));
+        return this.executeRequest("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parseWallet);
+    }
+
+    /**
+     * Asynchronous version of {@link #getWallet(Long)}
+     *
+     * @param id The wallet identifier
+     *
+     * @return a future completed with the Wallet, or with the exception getWallet would have thrown
+     */
+    public CompletableFuture<Wallet> getWalletAsync(Long id) {
+        String endpoint = "wallet/wallets/" + id + "/";
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parseWallet);
     }
 
     /**
@@ -108,8 +145,20 @@ public class WalletOperation extends AOperation {
     public PaginatedWallets getWallets(int page) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException {
         String endpoint = "wallet/wallets/?page=" + page;
 
-        JSONParser parser = new JSONParser();
-        return new PaginatedWallets((JSONObject) parser.parse(this.executeRequest("GET", endpoint, new Date(), RandomGenerator.nonce(), null)));
+        return this.executeRequest("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parsePaginatedWallets);
+    }
+
+    /**
+     * Asynchronous version of {@link #getWallets(int)}
+     *
+     * @param page The page number
+     *
+     * @return a future completed with the PaginatedWallets, or with the exception getWallets would have thrown
+     */
+    public CompletableFuture<PaginatedWallets> getWalletsAsync(int page) {
+        String endpoint = "wallet/wallets/?page=" + page;
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parsePaginatedWallets);
     }
 
     /**
@@ -144,8 +193,27 @@ public class WalletOperation extends AOperation {
             nonce = (String) params.remove("nonce");
         }
 
-        JSONParser parser = new JSONParser();
-        return new Wallet((JSONObject) parser.parse(this.executeRequest("PUT", endpoint, new Date(), nonce, params)));
+        return this.executeRequest("PUT", endpoint, this.now(), nonce, params, WalletOperation::parseWallet);
+    }
+
+    /**
+     * Asynchronous version of {@link #updateWallet(Long, Map)}
+     *
+     * @param id The wallet identifier
+     * @param params same as {@link #updateWallet(Long, Map)}
+     *
+     * @return a future completed with the Wallet, or with the exception updateWallet would have thrown
+     */
+    public CompletableFuture<Wallet> updateWalletAsync(Long id, Map<String, Object> params) {
+        String endpoint = "wallet/wallets/" + id + "/";
+
+        String nonce = RandomGenerator.nonce();
+
+        if (params.containsKey("nonce")) {
+            nonce = (String) params.remove("nonce");
+        }
+
+        return this.executeRequestAsync("PUT", endpoint, this.now(), nonce, params, WalletOperation::parseWallet);
     }
 
     /**
@@ -163,7 +231,20 @@ public class WalletOperation extends AOperation {
     public void deleteWallet(Long id) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException {
         String endpoint = "wallet/wallets/" + id + "/";
 
-        this.executeRequest("DELETE", endpoint, new Date(), RandomGenerator.nonce(), null);
+        this.executeRequest("DELETE", endpoint, this.now(), RandomGenerator.nonce(), null, data -> null);
+    }
+
+    /**
+     * Asynchronous version of {@link #deleteWallet(Long)}
+     *
+     * @param id The wallet identifier
+     *
+     * @return a future completed with null once deleted, or with the exception deleteWallet would have thrown
+     */
+    public CompletableFuture<Void> deleteWalletAsync(Long id) {
+        String endpoint = "wallet/wallets/" + id + "/";
+
+        return this.executeRequestAsync("DELETE", endpoint, this.now(), RandomGenerator.nonce(), null, data -> null);
     }
 
     /**
@@ -186,23 +267,7 @@ public class WalletOperation extends AOperation {
      * @throws InvalidKeyException if the key is invalid
      */
     public WalletTransaction removeMoney(Long wallet, float amount, boolean force, String message, String externalId) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException, java.text.ParseException {
-        String endpoint = "wallet/wallets/" + wallet + "/adjust/";
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("amount", amount);
-        body.put("force", force);
-        body.put("direction", -1);
-
-        if (message != null) {
-            body.put("message", message);
-        }
-
-        if (externalId != null) {
-            body.put("trxID", externalId);
-        }
-
-        JSONParser parser = new JSONParser();
-        return new WalletTransaction((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), RandomGenerator.nonce(), body)));
+        return this.adjustWallet(buildRemoveRequest(wallet, amount, force, message, externalId));
     }
 
     /**
@@ -225,6 +290,25 @@ public class WalletOperation extends AOperation {
         return removeMoney(wallet, amount, false, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #removeMoney(Long, float, boolean, String, String)}
+     *
+     * @param wallet The wallet identifier
+     * @param amount The amount to remove
+     * @param force Force the operation if balance is not enough
+     * @param message The message to add to the transaction (optional)
+     * @param externalId The external identifier of the transaction (optional)
+     *
+     * @return a future completed with the WalletTransaction, or with the exception removeMoney would have thrown
+     */
+    public CompletableFuture<WalletTransaction> removeMoneyAsync(Long wallet, float amount, boolean force, String message, String externalId) {
+        return this.adjustWalletAsync(buildRemoveRequest(wallet, amount, force, message, externalId));
+    }
+
+    public CompletableFuture<WalletTransaction> removeMoneyAsync(Long wallet, float amount) {
+        return removeMoneyAsync(wallet, amount, false, null, null);
+    }
+
     /**
      * Add money to a wallet
      *
@@ -244,22 +328,7 @@ public class WalletOperation extends AOperation {
      * @throws InvalidKeyException if the key is invalid
      */
     public WalletTransaction addMoney(Long wallet, float amount, String message, String externalId) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException, java.text.ParseException {
-        String endpoint = "wallet/wallets/" + wallet + "/adjust/";
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("amount", amount);
-        body.put("direction", 1);
-
-        if (message != null) {
-            body.put("message", message);
-        }
-
-        if (externalId != null) {
-            body.put("trxID", externalId);
-        }
-
-        JSONParser parser = new JSONParser();
-        return new WalletTransaction((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), RandomGenerator.nonce(), body)));
+        return this.adjustWallet(buildAddRequest(wallet, amount, message, externalId));
     }
 
     /**
@@ -282,6 +351,24 @@ public class WalletOperation extends AOperation {
         return addMoney(wallet, amount, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #addMoney(Long, float, String, String)}
+     *
+     * @param wallet The wallet identifier
+     * @param amount The amount to add
+     * @param message The message to add to the transaction (optional)
+     * @param externalId The external identifier of the transaction (optional)
+     *
+     * @return a future completed with the WalletTransaction, or with the exception addMoney would have thrown
+     */
+    public CompletableFuture<WalletTransaction> addMoneyAsync(Long wallet, float amount, String message, String externalId) {
+        return this.adjustWalletAsync(buildAddRequest(wallet, amount, message, externalId));
+    }
+
+    public CompletableFuture<WalletTransaction> addMoneyAsync(Long wallet, float amount) {
+        return addMoneyAsync(wallet, amount, null, null);
+    }
+
     /**
      * Remove money to a wallet
      *
@@ -302,23 +389,7 @@ public class WalletOperation extends AOperation {
      * @throws InvalidKeyException if the key is invalid
      */
     public WalletTransaction transferMoney(Long from, Long to, float amount, boolean force, String message, String externalId) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException, java.text.ParseException {
-        String endpoint = "wallet/wallets/" + from + "/transfer/";
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("amount", amount);
-        body.put("to", to);
-        body.put("force", force);
-
-        if (message != null) {
-            body.put("message", message);
-        }
-
-        if (externalId != null) {
-            body.put("trxID", externalId);
-        }
-
-        JSONParser parser = new JSONParser();
-        return new WalletTransaction((JSONObject) parser.parse(this.executeRequest("POST", endpoint, new Date(), RandomGenerator.nonce(), body)));
+        return this.transferMoney(buildTransferRequest(from, to, amount, force, message, externalId));
     }
 
     /**
@@ -342,6 +413,26 @@ public class WalletOperation extends AOperation {
         return transferMoney(from, to, amount, force, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #transferMoney(Long, Long, float, boolean, String, String)}
+     *
+     * @param from The wallet identifier
+     * @param to The wallet identifier
+     * @param amount The amount to transfer
+     * @param force Force the operation if balance is not enough
+     * @param message The message to add to the transaction (optional)
+     * @param externalId The external identifier of the transaction (optional)
+     *
+     * @return a future completed with the WalletTransaction, or with the exception transferMoney would have thrown
+     */
+    public CompletableFuture<WalletTransaction> transferMoneyAsync(Long from, Long to, float amount, boolean force, String message, String externalId) {
+        return this.transferMoneyAsync(buildTransferRequest(from, to, amount, force, message, externalId));
+    }
+
+    public CompletableFuture<WalletTransaction> transferMoneyAsync(Long from, Long to, float amount, boolean force) {
+        return transferMoneyAsync(from, to, amount, force, null, null);
+    }
+
     /**
      * Get transactions
      *
@@ -364,8 +455,7 @@ public class WalletOperation extends AOperation {
             endpoint += "&wallet=" + wallet;
         }
 
-        JSONParser parser = new JSONParser();
-        return new PaginatedWalletTransactions((JSONObject) parser.parse(this.executeRequest("GET", endpoint, new Date(), RandomGenerator.nonce(), null)));
+        return this.executeRequest("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parsePaginatedWalletTransactions);
     }
 
     /**
@@ -387,6 +477,27 @@ public class WalletOperation extends AOperation {
         return listTransactions(page, null);
     }
 
+    /**
+     * Asynchronous version of {@link #listTransactions(int, Long)}
+     *
+     * @param page The page number
+     * @param wallet The wallet identifier
+     *
+     * @return a future completed with the PaginatedWalletTransactions, or with the exception listTransactions would have thrown
+     */
+    public CompletableFuture<PaginatedWalletTransactions> listTransactionsAsync(int page, Long wallet) {
+        String endpoint = "wallet/transactions/?page=" + page;
+        if (wallet != null) {
+            endpoint += "&wallet=" + wallet;
+        }
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parsePaginatedWalletTransactions);
+    }
+
+    public CompletableFuture<PaginatedWalletTransactions> listTransactionsAsync(int page) {
+        return listTransactionsAsync(page, null);
+    }
+
     /**
      * Get transactions
      *
@@ -405,29 +516,153 @@ public class WalletOperation extends AOperation {
     public WalletTransaction getTransaction(Long id) throws ServerException, ServiceNotFoundException, PermissionDeniedException, IOException, NoSuchAlgorithmException, InvalidClientRequestException, InvalidKeyException, ParseException, java.text.ParseException {
         String endpoint = "wallet/transactions/" + id + "/";
 
-        JSONParser parser = new JSONParser();
-        return new WalletTransaction((JSONObject) parser.parse(this.executeRequest("GET", endpoint, new Date(), RandomGenerator.nonce(), null)));
+        return this.executeRequest("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parseWalletTransaction);
+    }
+
+    /**
+     * Asynchronous version of {@link #getTransaction(Long)}
+     *
+     * @param id The transaction identifier
+     *
+     * @return a future completed with the WalletTransaction, or with the exception getTransaction would have thrown
+     */
+    public CompletableFuture<WalletTransaction> getTransactionAsync(Long id) {
+        String endpoint = "wallet/transactions/" + id + "/";
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), RandomGenerator.nonce(), null, WalletOperation::parseWalletTransaction);
     }
 
     public WalletTransaction[] getTransactions(String[] ids, String source) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        String endpoint = buildTransactionsEndpoint(ids, source);
+
+        return this.executeRequest("GET", endpoint, this.now(), WalletOperation::parseWalletTransactions);
+    }
+
+    public WalletTransaction[] getTransactions(String[] ids) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return getTransactions(ids, "MESOMB");
+    }
+
+    /**
+     * Asynchronous version of {@link #getTransactions(String[], String)}
+     *
+     * @param ids Ids of transactions to fetch
+     * @param source Source of the transaction with possible values MESOMB, EXTERNAL
+     *
+     * @return a future completed with the transactions fetched, or with the exception getTransactions would have thrown
+     */
+    public CompletableFuture<WalletTransaction[]> getTransactionsAsync(String[] ids, String source) {
+        String endpoint = buildTransactionsEndpoint(ids, source);
+
+        return this.executeRequestAsync("GET", endpoint, this.now(), WalletOperation::parseWalletTransactions);
+    }
+
+    public CompletableFuture<WalletTransaction[]> getTransactionsAsync(String[] ids) {
+        return getTransactionsAsync(ids, "MESOMB");
+    }
+
+    /**
+     * Add money to or remove money from a wallet, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link WalletAdjustRequest#add}
+     * @return the WalletTransaction
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public WalletTransaction adjustWallet(WalletAdjustRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("wallet/wallets/" + request.getWallet() + "/adjust/", request, WalletOperation::parseWalletTransaction);
+    }
+
+    /**
+     * Asynchronous version of {@link #adjustWallet(WalletAdjustRequest)}
+     *
+     * @param request same as {@link #adjustWallet(WalletAdjustRequest)}
+     * @return a future completed with the WalletTransaction, or with the exception adjustWallet would have thrown
+     */
+    public CompletableFuture<WalletTransaction> adjustWalletAsync(WalletAdjustRequest request) {
+        return this.executeRequestAsync("wallet/wallets/" + request.getWallet() + "/adjust/", request, WalletOperation::parseWalletTransaction);
+    }
+
+    /**
+     * Transfer money from a wallet to another, the request being written straight to the bytes sent
+     *
+     * @param request the request, see {@link WalletTransferRequest#builder}
+     * @return the WalletTransaction
+     * @throws IOException if an I/O error occurs
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws InvalidKeyException if the key is invalid
+     * @throws ServerException if the server encounters an error
+     * @throws ServiceNotFoundException if the service is not found
+     * @throws PermissionDeniedException if permission is denied
+     * @throws InvalidClientRequestException if the request is invalid
+     * @throws ParseException if the response cannot be parsed
+     */
+    public WalletTransaction transferMoney(WalletTransferRequest request) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
+        return this.executeRequest("wallet/wallets/" + request.getFrom() + "/transfer/", request, WalletOperation::parseWalletTransaction);
+    }
+
+    /**
+     * Asynchronous version of {@link #transferMoney(WalletTransferRequest)}
+     *
+     * @param request same as {@link #transferMoney(WalletTransferRequest)}
+     * @return a future completed with the WalletTransaction, or with the exception transferMoney would have thrown
+     */
+    public CompletableFuture<WalletTransaction> transferMoneyAsync(WalletTransferRequest request) {
+        return this.executeRequestAsync("wallet/wallets/" + request.getFrom() + "/transfer/", request, WalletOperation::parseWalletTransaction);
+    }
+
+    // the float amounts are rounded to Money.SCALE decimals, which drops the float noise, e.g. 0.1f is sent as 0.1
+    private static WalletAdjustRequest buildAddRequest(Long wallet, float amount, String message, String externalId) {
+        return WalletAdjustRequest.add(wallet, amount).message(message).externalId(externalId).build();
+    }
+
+    private static WalletAdjustRequest buildRemoveRequest(Long wallet, float amount, boolean force, String message, String externalId) {
+        return WalletAdjustRequest.remove(wallet, amount).force(force).message(message).externalId(externalId).build();
+    }
+
+    private static WalletTransferRequest buildTransferRequest(Long from, Long to, float amount, boolean force, String message, String externalId) {
+        return WalletTransferRequest.builder(from, to, amount).force(force).message(message).externalId(externalId).build();
+    }
+
+    private static String buildTransactionsEndpoint(String[] ids, String source) {
         String[] query = new String[ids.length];
         for (int i = 0; i < ids.length; i++) {
             query[i] = "ids=" + ids[i];
         }
 
-        String endpoint = "wallet/transactions/search/?" + String.join("&", query) + "&source=" + source;
+        return "wallet/transactions/search/?" + String.join("&", query) + "&source=" + source;
+    }
 
-        JSONParser parser = new JSONParser();
-        JSONArray response = (JSONArray) parser.parse(this.executeRequest("GET", endpoint, new Date()));
-        WalletTransaction[] transactions = new WalletTransaction[response.size()];
-        for (int i = 0; i < response.size(); i++) {
-            transactions[i] = new WalletTransaction((JSONObject) response.get(i));
-        }
-        return transactions;
+    private static Wallet parseWallet(Reader data) throws IOException, ParseException {
+        return new Wallet(new JsonReader(data));
     }
 
-    public WalletTransaction[] getTransactions(String[] ids) throws IOException, NoSuchAlgorithmException, InvalidKeyException, ServerException, ServiceNotFoundException, PermissionDeniedException, InvalidClientRequestException, ParseException, java.text.ParseException {
-        return getTransactions(ids, "MESOMB");
+    private static PaginatedWallets parsePaginatedWallets(Reader data) throws IOException, ParseException {
+        return new PaginatedWallets(new JsonReader(data));
+    }
+
+    private static WalletTransaction parseWalletTransaction(Reader data) throws IOException, ParseException, java.text.ParseException {
+        return new WalletTransaction(new JsonReader(data));
+    }
+
+    private static PaginatedWalletTransactions parsePaginatedWalletTransactions(Reader data) throws IOException, ParseException, java.text.ParseException {
+        return new PaginatedWalletTransactions(new JsonReader(data));
+    }
+
+    private static WalletTransaction[] parseWalletTransactions(Reader data) throws IOException, ParseException, java.text.ParseException {
+        JsonReader reader = new JsonReader(data);
+        List<WalletTransaction> transactions = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            transactions.add(new WalletTransaction(reader));
+        }
+        reader.endArray();
+        return transactions.toArray(new WalletTransaction[0]);
     }
 
     @Override
@@ -0,0 +1,168 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields shared by the collect, deposit and airtime requests
+ */
+public abstract class APaymentRequest extends ARequest {
+    // fixed-point amount, see Money
+    private final long amount;
+    private final String service;
+    private final String country;
+    private final String currency;
+    private final Map<String, Object> location;
+    private final Map<String, Object> customer;
+    private final List<Map<String, Object>> products;
+
+    protected APaymentRequest(Builder<?> builder) {
+        super(builder);
+        this.amount = builder.amount;
+        this.service = builder.service;
+        this.country = builder.country;
+        this.currency = builder.currency;
+        this.location = builder.location;
+        this.customer = builder.customer;
+        this.products = builder.products;
+    }
+
+    public double getAmount() {
+        return Money.toDouble(amount);
+    }
+
+    /**
+     * @return the amount in minor units of the currency, rounded to the nearest
+     */
+    public long getAmountMinor() {
+        return Money.toMinor(amount, Money.scale(currency));
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Map<String, Object> getLocation() {
+        return location;
+    }
+
+    public Map<String, Object> getCustomer() {
+        return customer;
+    }
+
+    public List<Map<String, Object>> getProducts() {
+        return products;
+    }
+
+    protected void writeAmount(JsonWriter writer) {
+        writer.name("amount").value(amount, Money.SCALE);
+    }
+
+    protected void writeCountry(JsonWriter writer) {
+        writer.name("country").value(country);
+        writer.name("currency").value(currency);
+        writer.name("amount_currency").value(currency);
+    }
+
+    protected void writeDetails(JsonWriter writer) {
+        if (location != null) {
+            writer.name("location").value(location);
+        }
+        if (customer != null) {
+            writer.name("customer").value(customer);
+        }
+        if (products != null) {
+            writer.name("products").value(products);
+        }
+    }
+
+    public abstract static class Builder<B extends Builder<B>> extends ARequest.Builder<B> {
+        private final long amount;
+        private final String service;
+        private String country = "CM";
+        private String currency = "XAF";
+        private Map<String, Object> location;
+        private Map<String, Object> customer;
+        private List<Map<String, Object>> products;
+
+        /**
+         * @param amount the fixed-point amount, see {@link Money}
+         * @param service the payment service: MTN, ORANGE...
+         */
+        protected Builder(long amount, String service) {
+            this.amount = amount;
+            this.service = service;
+        }
+
+        /**
+         * @param country the country code, CM by default
+         * @return this builder
+         */
+        public B country(String country) {
+            this.country = country;
+            return self();
+        }
+
+        /**
+         * @param currency the currency code, XAF by default
+         * @return this builder
+         */
+        public B currency(String currency) {
+            this.currency = currency;
+            return self();
+        }
+
+        /**
+         * @param location location of the customer: town, region and country
+         * @return this builder
+         */
+        public B location(Map<String, ?> location) {
+            this.location = copy(location);
+            return self();
+        }
+
+        /**
+         * @param customer the customer: phone, email, first_name, last_name, address, town, region and country
+         * @return this builder
+         */
+        public B customer(Map<String, ?> customer) {
+            this.customer = copy(customer);
+            return self();
+        }
+
+        /**
+         * @param products the products, each with id, name, category, quantity and amount
+         * @return this builder
+         */
+        public B products(List<? extends Map<String, ?>> products) {
+            if (products == null) {
+                this.products = null;
+                return self();
+            }
+            List<Map<String, Object>> copy = new ArrayList<>(products.size());
+            for (Map<String, ?> product : products) {
+                copy.add(copy(product));
+            }
+            this.products = Collections.unmodifiableList(copy);
+            return self();
+        }
+
+        private static Map<String, Object> copy(Map<String, ?> map) {
+            return map != null ? Collections.unmodifiableMap(new LinkedHashMap<>(map)) : null;
+        }
+    }
+}
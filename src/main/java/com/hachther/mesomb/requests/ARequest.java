@@ -0,0 +1,81 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+
+/**
+ * Body of a POST request, immutable once built. Its fields are written in a fixed order straight to the bytes that
+ * are signed and sent.
+ */
+public abstract class ARequest {
+    private final String nonce;
+    private final String trxID;
+
+    protected ARequest(Builder<?> builder) {
+        this.nonce = builder.nonce;
+        this.trxID = builder.trxID;
+    }
+
+    /**
+     * @return the nonce of the request, null to generate one when it is sent
+     */
+    public String getNonce() {
+        return nonce;
+    }
+
+    /**
+     * @return the transaction ID sent in the X-MeSomb-TrxID header, or null
+     */
+    public String getTrxID() {
+        return trxID;
+    }
+
+    /**
+     * @return the operation mode sent in the X-MeSomb-OperationMode header, or null
+     */
+    public String getMode() {
+        return null;
+    }
+
+    /**
+     * Serialize the body of the request
+     * @return the body as UTF-8 JSON
+     */
+    public byte[] toJson() {
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject();
+        this.write(writer);
+        writer.endObject();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Write the members of the body, in their canonical order
+     * @param writer writer positioned in the body object
+     */
+    protected abstract void write(JsonWriter writer);
+
+    public abstract static class Builder<B extends Builder<B>> {
+        private String nonce;
+        private String trxID;
+
+        /**
+         * @param nonce a unique string for the request, generated when not set
+         * @return this builder
+         */
+        public B nonce(String nonce) {
+            this.nonce = nonce;
+            return self();
+        }
+
+        /**
+         * @param trxID your own identifier of the transaction
+         * @return this builder
+         */
+        public B trxID(String trxID) {
+            this.trxID = trxID;
+            return self();
+        }
+
+        protected abstract B self();
+    }
+}
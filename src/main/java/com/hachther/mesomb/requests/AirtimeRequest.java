@@ -0,0 +1,79 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to purchase airtime for a receiver, see {@link com.hachther.mesomb.operations.PaymentOperation#purchaseAirtime(AirtimeRequest)}
+ */
+public final class AirtimeRequest extends APaymentRequest {
+    private final String receiver;
+    private final String merchant;
+
+    private AirtimeRequest(Builder builder) {
+        super(builder);
+        this.receiver = builder.receiver;
+        this.merchant = builder.merchant;
+    }
+
+    /**
+     * @param amount the amount of airtime
+     * @param service the operator: MTN, ORANGE...
+     * @param receiver the phone number of the receiver
+     * @param merchant the merchant of the airtime
+     * @return the builder of the request
+     */
+    public static Builder builder(double amount, String service, String receiver, String merchant) {
+        return new Builder(Money.of(amount), service, receiver, merchant);
+    }
+
+    /**
+     * @param amount the amount of airtime in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @param service the operator: MTN, ORANGE...
+     * @param receiver the phone number of the receiver
+     * @param merchant the merchant of the airtime
+     * @return the builder of the request
+     */
+    public static Builder builder(long amount, int scale, String service, String receiver, String merchant) {
+        return new Builder(Money.fromMinor(amount, scale), service, receiver, merchant);
+    }
+
+    public String getReceiver() {
+        return receiver;
+    }
+
+    public String getMerchant() {
+        return merchant;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writeAmount(writer);
+        writer.name("service").value(getService());
+        writer.name("receiver").value(receiver);
+        writer.name("merchant").value(merchant);
+        writeCountry(writer);
+        writeDetails(writer);
+    }
+
+    public static final class Builder extends APaymentRequest.Builder<Builder> {
+        private final String receiver;
+        private final String merchant;
+
+        private Builder(long amount, String service, String receiver, String merchant) {
+            super(amount, service);
+            this.receiver = receiver;
+            this.merchant = merchant;
+        }
+
+        public AirtimeRequest build() {
+            return new AirtimeRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to collect money from a payer, see {@link com.hachther.mesomb.operations.PaymentOperation#makeCollect(CollectRequest)}
+ */
+public final class CollectRequest extends APaymentRequest {
+    private final String payer;
+    private final boolean fees;
+    private final boolean conversion;
+    private final String mode;
+
+    private CollectRequest(Builder builder) {
+        super(builder);
+        this.payer = builder.payer;
+        this.fees = builder.fees;
+        this.conversion = builder.conversion;
+        this.mode = builder.mode;
+    }
+
+    /**
+     * @param amount the amount to collect
+     * @param service the payment service: MTN, ORANGE...
+     * @param payer the account number of the payer
+     * @return the builder of the request
+     */
+    public static Builder builder(double amount, String service, String payer) {
+        return new Builder(Money.of(amount), service, payer);
+    }
+
+    /**
+     * @param amount the amount to collect in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @param service the payment service: MTN, ORANGE...
+     * @param payer the account number of the payer
+     * @return the builder of the request
+     */
+    public static Builder builder(long amount, int scale, String service, String payer) {
+        return new Builder(Money.fromMinor(amount, scale), service, payer);
+    }
+
+    public String getPayer() {
+        return payer;
+    }
+
+    public boolean isFees() {
+        return fees;
+    }
+
+    public boolean isConversion() {
+        return conversion;
+    }
+
+    @Override
+    public String getMode() {
+        return mode;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writeAmount(writer);
+        writer.name("service").value(getService());
+        writer.name("payer").value(payer);
+        writeCountry(writer);
+        writer.name("fees").value(fees);
+        writer.name("conversion").value(conversion);
+        writeDetails(writer);
+    }
+
+    public static final class Builder extends APaymentRequest.Builder<Builder> {
+        private final String payer;
+        private boolean fees = true;
+        private boolean conversion = false;
+        private String mode = "synchronous";
+
+        private Builder(long amount, String service, String payer) {
+            super(amount, service);
+            this.payer = payer;
+        }
+
+        /**
+         * @param fees whether the fees are added to the amount, true by default
+         * @return this builder
+         */
+        public Builder fees(boolean fees) {
+            this.fees = fees;
+            return this;
+        }
+
+        /**
+         * @param conversion whether to convert the amount to the currency of the payer, false by default
+         * @return this builder
+         */
+        public Builder conversion(boolean conversion) {
+            this.conversion = conversion;
+            return this;
+        }
+
+        /**
+         * @param mode the operation mode: synchronous (default) or asynchronous
+         * @return this builder
+         */
+        public Builder mode(String mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public CollectRequest build() {
+            return new CollectRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
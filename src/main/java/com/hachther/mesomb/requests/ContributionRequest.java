@@ -0,0 +1,261 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to contribute to a fund, see {@link com.hachther.mesomb.operations.FundraisingOperation#makeContribution(ContributionRequest)}
+ */
+public final class ContributionRequest extends ARequest {
+    // fixed-point amount, see Money
+    private final long amount;
+    private final String service;
+    private final String payer;
+    private final String country;
+    private final String currency;
+    private final boolean conversion;
+    private final boolean anonymous;
+    private final boolean acceptTerms;
+    private final String firstName;
+    private final String lastName;
+    private final String phoneNumber;
+    private final String email;
+    private final String mode;
+
+    private ContributionRequest(Builder builder) {
+        super(builder);
+        this.amount = builder.amount;
+        this.service = builder.service;
+        this.payer = builder.payer;
+        this.country = builder.country;
+        this.currency = builder.currency;
+        this.conversion = builder.conversion;
+        this.anonymous = builder.anonymous;
+        this.acceptTerms = builder.acceptTerms;
+        this.firstName = builder.firstName;
+        this.lastName = builder.lastName;
+        this.phoneNumber = builder.phoneNumber;
+        this.email = builder.email;
+        this.mode = builder.mode;
+    }
+
+    /**
+     * @param amount the amount to contribute
+     * @param service the payment service: MTN, ORANGE...
+     * @param payer the account number of the payer
+     * @return the builder of the request
+     */
+    public static Builder builder(double amount, String service, String payer) {
+        return new Builder(Money.of(amount), service, payer);
+    }
+
+    /**
+     * @param amount the amount to contribute in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @param service the payment service: MTN, ORANGE...
+     * @param payer the account number of the payer
+     * @return the builder of the request
+     */
+    public static Builder builder(long amount, int scale, String service, String payer) {
+        return new Builder(Money.fromMinor(amount, scale), service, payer);
+    }
+
+    public double getAmount() {
+        return Money.toDouble(amount);
+    }
+
+    /**
+     * @return the amount in minor units of the currency, rounded to the nearest
+     */
+    public long getAmountMinor() {
+        return Money.toMinor(amount, Money.scale(currency));
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getPayer() {
+        return payer;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public boolean isConversion() {
+        return conversion;
+    }
+
+    public boolean isAnonymous() {
+        return anonymous;
+    }
+
+    public boolean isAcceptTerms() {
+        return acceptTerms;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getMode() {
+        return mode;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writer.name("amount").value(amount, Money.SCALE);
+        writer.name("service").value(service);
+        writer.name("payer").value(payer);
+        writer.name("country").value(country);
+        writer.name("amount_currency").value(currency);
+        writer.name("conversion").value(conversion);
+        writer.name("anonymous").value(anonymous);
+        writer.name("accept_terms").value(acceptTerms);
+        if (firstName != null || lastName != null) {
+            writer.name("full_name").beginObject();
+            if (firstName != null) {
+                writer.name("first_name").value(firstName);
+            }
+            if (lastName != null) {
+                writer.name("last_name").value(lastName);
+            }
+            writer.endObject();
+        }
+        if (phoneNumber != null || email != null) {
+            writer.name("contact").beginObject();
+            if (phoneNumber != null) {
+                writer.name("phone_number").value(phoneNumber);
+            }
+            if (email != null) {
+                writer.name("email").value(email);
+            }
+            writer.endObject();
+        }
+    }
+
+    public static final class Builder extends ARequest.Builder<Builder> {
+        private final long amount;
+        private final String service;
+        private final String payer;
+        private String country = "CM";
+        private String currency = "XAF";
+        private boolean conversion = false;
+        private boolean anonymous = false;
+        private boolean acceptTerms = true;
+        private String firstName;
+        private String lastName;
+        private String phoneNumber;
+        private String email;
+        private String mode = "synchronous";
+
+        private Builder(long amount, String service, String payer) {
+            this.amount = amount;
+            this.service = service;
+            this.payer = payer;
+        }
+
+        /**
+         * @param country the country code, CM by default
+         * @return this builder
+         */
+        public Builder country(String country) {
+            this.country = country;
+            return this;
+        }
+
+        /**
+         * @param currency the currency code, XAF by default
+         * @return this builder
+         */
+        public Builder currency(String currency) {
+            this.currency = currency;
+            return this;
+        }
+
+        /**
+         * @param conversion whether to convert the amount to the currency of the payer, false by default
+         * @return this builder
+         */
+        public Builder conversion(boolean conversion) {
+            this.conversion = conversion;
+            return this;
+        }
+
+        /**
+         * @param anonymous whether the contribution is anonymous, false by default
+         * @return this builder
+         */
+        public Builder anonymous(boolean anonymous) {
+            this.anonymous = anonymous;
+            return this;
+        }
+
+        /**
+         * @param acceptTerms whether the terms are accepted, true by default
+         * @return this builder
+         */
+        public Builder acceptTerms(boolean acceptTerms) {
+            this.acceptTerms = acceptTerms;
+            return this;
+        }
+
+        /**
+         * @param firstName first name of the contributor
+         * @param lastName last name of the contributor
+         * @return this builder
+         */
+        public Builder fullName(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            return this;
+        }
+
+        /**
+         * @param phoneNumber phone number of the contributor
+         * @param email email of the contributor
+         * @return this builder
+         */
+        public Builder contact(String phoneNumber, String email) {
+            this.phoneNumber = phoneNumber;
+            this.email = email;
+            return this;
+        }
+
+        /**
+         * @param mode the operation mode: synchronous (default) or asynchronous
+         * @return this builder
+         */
+        public Builder mode(String mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public ContributionRequest build() {
+            return new ContributionRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
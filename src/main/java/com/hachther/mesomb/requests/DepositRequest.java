@@ -0,0 +1,85 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to deposit money to a receiver, see {@link com.hachther.mesomb.operations.PaymentOperation#makeDeposit(DepositRequest)}
+ */
+public final class DepositRequest extends APaymentRequest {
+    private final String receiver;
+    private final boolean conversion;
+
+    private DepositRequest(Builder builder) {
+        super(builder);
+        this.receiver = builder.receiver;
+        this.conversion = builder.conversion;
+    }
+
+    /**
+     * @param amount the amount to deposit
+     * @param service the payment service: MTN, ORANGE...
+     * @param receiver the account number of the receiver
+     * @return the builder of the request
+     */
+    public static Builder builder(double amount, String service, String receiver) {
+        return new Builder(Money.of(amount), service, receiver);
+    }
+
+    /**
+     * @param amount the amount to deposit in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @param service the payment service: MTN, ORANGE...
+     * @param receiver the account number of the receiver
+     * @return the builder of the request
+     */
+    public static Builder builder(long amount, int scale, String service, String receiver) {
+        return new Builder(Money.fromMinor(amount, scale), service, receiver);
+    }
+
+    public String getReceiver() {
+        return receiver;
+    }
+
+    public boolean isConversion() {
+        return conversion;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writeAmount(writer);
+        writer.name("service").value(getService());
+        writer.name("receiver").value(receiver);
+        writeCountry(writer);
+        writer.name("conversion").value(conversion);
+        writeDetails(writer);
+    }
+
+    public static final class Builder extends APaymentRequest.Builder<Builder> {
+        private final String receiver;
+        private boolean conversion = false;
+
+        private Builder(long amount, String service, String receiver) {
+            super(amount, service);
+            this.receiver = receiver;
+        }
+
+        /**
+         * @param conversion whether to convert the amount to the currency of the receiver, false by default
+         * @return this builder
+         */
+        public Builder conversion(boolean conversion) {
+            this.conversion = conversion;
+            return this;
+        }
+
+        public DepositRequest build() {
+            return new DepositRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to add money to or remove money from a wallet, see
+ * {@link com.hachther.mesomb.operations.WalletOperation#adjustWallet(WalletAdjustRequest)}
+ */
+public final class WalletAdjustRequest extends ARequest {
+    private final long wallet;
+    // fixed-point amount, see Money
+    private final long amount;
+    private final int direction;
+    private final Boolean force;
+    private final String message;
+
+    private WalletAdjustRequest(Builder builder) {
+        super(builder);
+        this.wallet = builder.wallet;
+        this.amount = builder.amount;
+        this.direction = builder.direction;
+        this.force = builder.force;
+        this.message = builder.message;
+    }
+
+    /**
+     * @param wallet the wallet identifier
+     * @param amount the amount to add
+     * @return the builder of the request
+     */
+    public static Builder add(long wallet, double amount) {
+        return new Builder(wallet, Money.of(amount), 1);
+    }
+
+    /**
+     * @param wallet the wallet identifier
+     * @param amount the amount to add in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @return the builder of the request
+     */
+    public static Builder add(long wallet, long amount, int scale) {
+        return new Builder(wallet, Money.fromMinor(amount, scale), 1);
+    }
+
+    /**
+     * @param wallet the wallet identifier
+     * @param amount the amount to remove
+     * @return the builder of the request
+     */
+    public static Builder remove(long wallet, double amount) {
+        return new Builder(wallet, Money.of(amount), -1);
+    }
+
+    /**
+     * @param wallet the wallet identifier
+     * @param amount the amount to remove in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @return the builder of the request
+     */
+    public static Builder remove(long wallet, long amount, int scale) {
+        return new Builder(wallet, Money.fromMinor(amount, scale), -1);
+    }
+
+    public long getWallet() {
+        return wallet;
+    }
+
+    public double getAmount() {
+        return Money.toDouble(amount);
+    }
+
+    /**
+     * @param currency the currency of the wallet
+     * @return the amount in minor units of the currency, rounded to the nearest
+     */
+    public long getAmountMinor(String currency) {
+        return Money.toMinor(amount, Money.scale(currency));
+    }
+
+    /**
+     * @return 1 to add money, -1 to remove it
+     */
+    public int getDirection() {
+        return direction;
+    }
+
+    public Boolean getForce() {
+        return force;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writer.name("amount").value(amount, Money.SCALE);
+        writer.name("direction").value(direction);
+        if (force != null) {
+            writer.name("force").value(force.booleanValue());
+        }
+        if (message != null) {
+            writer.name("message").value(message);
+        }
+    }
+
+    public static final class Builder extends ARequest.Builder<Builder> {
+        private final long wallet;
+        private final long amount;
+        private final int direction;
+        private Boolean force;
+        private String message;
+
+        private Builder(long wallet, long amount, int direction) {
+            this.wallet = wallet;
+            this.amount = amount;
+            this.direction = direction;
+        }
+
+        /**
+         * @param force remove the money even if the balance is not enough
+         * @return this builder
+         */
+        public Builder force(boolean force) {
+            this.force = force;
+            return this;
+        }
+
+        /**
+         * @param message the message of the transaction
+         * @return this builder
+         */
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        /**
+         * @param externalId your own identifier of the transaction
+         * @return this builder
+         */
+        public Builder externalId(String externalId) {
+            return trxID(externalId);
+        }
+
+        public WalletAdjustRequest build() {
+            return new WalletAdjustRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.hachther.mesomb.requests;
+
+import com.hachther.mesomb.util.JsonWriter;
+import com.hachther.mesomb.util.Money;
+
+/**
+ * Request to transfer money from a wallet to another, see
+ * {@link com.hachther.mesomb.operations.WalletOperation#transferMoney(WalletTransferRequest)}
+ */
+public final class WalletTransferRequest extends ARequest {
+    private final long from;
+    private final long to;
+    // fixed-point amount, see Money
+    private final long amount;
+    private final boolean force;
+    private final String message;
+
+    private WalletTransferRequest(Builder builder) {
+        super(builder);
+        this.from = builder.from;
+        this.to = builder.to;
+        this.amount = builder.amount;
+        this.force = builder.force;
+        this.message = builder.message;
+    }
+
+    /**
+     * @param from the identifier of the wallet to take the money from
+     * @param to the identifier of the wallet receiving the money
+     * @param amount the amount to transfer
+     * @return the builder of the request
+     */
+    public static Builder builder(long from, long to, double amount) {
+        return new Builder(from, to, Money.of(amount));
+    }
+
+    /**
+     * @param from the identifier of the wallet to take the money from
+     * @param to the identifier of the wallet receiving the money
+     * @param amount the amount to transfer in minor units, e.g. 10050 for 100.50
+     * @param scale the number of decimals of the minor unit, see {@link Money#scale(String)}
+     * @return the builder of the request
+     */
+    public static Builder builder(long from, long to, long amount, int scale) {
+        return new Builder(from, to, Money.fromMinor(amount, scale));
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public double getAmount() {
+        return Money.toDouble(amount);
+    }
+
+    /**
+     * @param currency the currency of the wallets
+     * @return the amount in minor units of the currency, rounded to the nearest
+     */
+    public long getAmountMinor(String currency) {
+        return Money.toMinor(amount, Money.scale(currency));
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    protected void write(JsonWriter writer) {
+        writer.name("amount").value(amount, Money.SCALE);
+        writer.name("to").value(to);
+        writer.name("force").value(force);
+        if (message != null) {
+            writer.name("message").value(message);
+        }
+    }
+
+    public static final class Builder extends ARequest.Builder<Builder> {
+        private final long from;
+        private final long to;
+        private final long amount;
+        private boolean force = false;
+        private String message;
+
+        private Builder(long from, long to, long amount) {
+            this.from = from;
+            this.to = to;
+            this.amount = amount;
+        }
+
+        /**
+         * @param force transfer the money even if the balance is not enough, false by default
+         * @return this builder
+         */
+        public Builder force(boolean force) {
+            this.force = force;
+            return this;
+        }
+
+        /**
+         * @param message the message of the transaction
+         * @return this builder
+         */
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        /**
+         * @param externalId your own identifier of the transaction
+         * @return this builder
+         */
+        public Builder externalId(String externalId) {
+            return trxID(externalId);
+        }
+
+        public WalletTransferRequest build() {
+            return new WalletTransferRequest(this);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.hachther.mesomb.util;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Parser of the ISO-8601 dates returned by the API, e.g. 2024-01-01T10:20:30Z or 2024-01-01T10:20:30+0100.
+ * It has no state, so it can be shared by every thread instead of creating a SimpleDateFormat for each date.
+ * Seconds can have a fraction and the offset can be Z, +HH, +HHmm or +HH:mm (or -).
+ */
+public final class DateParser {
+    private DateParser() {
+    }
+
+    /**
+     * Parse the date
+     *
+     * @param text date in ISO-8601 format
+     * @return Date
+     * @throws ParseException if the date is not valid
+     */
+    public static Date parse(String text) throws ParseException {
+        Instant instant = parseInstant(text);
+        return new Date(instant.toEpochMilli());
+    }
+
+    /**
+     * Parse the date
+     *
+     * @param text date in ISO-8601 format
+     * @return Instant
+     * @throws ParseException if the date is not valid
+     */
+    public static Instant parseInstant(String text) throws ParseException {
+        if (text == null || text.length() < 20) {
+            throw new ParseException("Unparseable date: \"" + text + "\"", 0);
+        }
+        int year = digits(text, 0, 4);
+        expect(text, 4, '-');
+        int month = digits(text, 5, 2);
+        expect(text, 7, '-');
+        int day = digits(text, 8, 2);
+        expect(text, 10, 'T');
+        int hour = digits(text, 11, 2);
+        expect(text, 13, ':');
+        int minute = digits(text, 14, 2);
+        expect(text, 16, ':');
+        int second = digits(text, 17, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour > 23 || minute > 59 || second > 59) {
+            throw new ParseException("Unparseable date: \"" + text + "\"", 5);
+        }
+
+        int pos = 19;
+        int nanos = 0;
+        if (text.charAt(pos) == '.') {
+            int start = ++pos;
+            while (pos < text.length() && isDigit(text.charAt(pos))) {
+                if (pos - start < 9) {
+                    nanos = nanos * 10 + text.charAt(pos) - '0';
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+            }
+            for (int i = pos - start; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+
+        int offset = 0;
+        if (pos < text.length() && text.charAt(pos) == 'Z') {
+            pos++;
+        } else if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+            int sign = text.charAt(pos) == '-' ? -1 : 1;
+            int offsetHours = digits(text, pos + 1, 2);
+            pos += 3;
+            int offsetMinutes = 0;
+            if (pos < text.length()) {
+                if (text.charAt(pos) == ':') {
+                    pos++;
+                }
+                offsetMinutes = digits(text, pos, 2);
+                pos += 2;
+            }
+            if (offsetHours > 18 || offsetMinutes > 59) {
+                throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+            }
+            offset = sign * (offsetHours * 3600 + offsetMinutes * 60);
+        } else {
+            throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+        }
+        if (pos != text.length()) {
+            throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+        }
+
+        long seconds = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second - offset;
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    private static int digits(String text, int pos, int count) throws ParseException {
+        if (pos + count > text.length()) {
+            throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+        }
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                throw new ParseException("Unparseable date: \"" + text + "\"", i);
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static void expect(String text, int pos, char c) throws ParseException {
+        if (text.charAt(pos) != c) {
+            throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // days since 1970-01-01 of a date of the proleptic Gregorian calendar
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
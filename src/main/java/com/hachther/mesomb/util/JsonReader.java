@@ -0,0 +1,902 @@
+package com.hachther.mesomb.util;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON document one token at a time, so that models are filled while the response is read, without building
+ * a tree of JSONObject first.
+ *
+ * Numbers are read straight from the buffer without boxing and object keys are shared between objects of a document.
+ * Short values such as statuses and currencies are shared between documents through {@link StringPool}.
+ * Errors are reported with the ParseException of json-simple, as for the responses parsed with JSONParser.
+ */
+public class JsonReader implements Closeable {
+    /** Kind of the next token */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int NAME_CACHE_SIZE = 256;
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    // how readString creates the string
+    private static final int STRING_NEW = 0;
+    private static final int STRING_NAME = 1;
+    private static final int STRING_POOLED = 2;
+    private static final int STRING_KNOWN = 3;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private char[] buffer;
+    private int pos;
+    private int limit;
+    private int consumed;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    private Token peeked;
+    private boolean peekedBoolean;
+
+    private final String[] names = new String[NAME_CACHE_SIZE];
+
+    private StringBuilder capture;
+    private int captureStart;
+
+    /**
+     * @param in the document, read as needed
+     */
+    public JsonReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @param json the document
+     */
+    public JsonReader(String json) {
+        this.in = null;
+        this.buffer = json.toCharArray();
+        this.limit = buffer.length;
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Get the kind of the next token without consuming it
+     * @return the kind of token
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    public Token peek() throws IOException, ParseException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    /**
+     * Consume the start of an array
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not the start of an array
+     */
+    public void beginArray() throws IOException, ParseException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = null;
+    }
+
+    /**
+     * Consume the end of the current array
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not the end of an array
+     */
+    public void endArray() throws IOException, ParseException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * Consume the start of an object
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not the start of an object
+     */
+    public void beginObject() throws IOException, ParseException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = null;
+    }
+
+    /**
+     * Consume the end of the current object
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not the end of an object
+     */
+    public void endObject() throws IOException, ParseException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * @return whether the current array or object has more elements
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    public boolean hasNext() throws IOException, ParseException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consume the next property name. The same String is returned for names repeated in the document.
+     * @return the name
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a name
+     */
+    public String nextName() throws IOException, ParseException {
+        expect(Token.NAME);
+        peeked = null;
+        return readString(STRING_NAME);
+    }
+
+    /**
+     * Consume the next string, numbers are returned as written
+     * @return the string, null for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a string, a number or null
+     */
+    public String nextString() throws IOException, ParseException {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case STRING:
+                return readString(STRING_NEW);
+            case NUMBER:
+                int length = numberLength();
+                String value = new String(buffer, pos, length);
+                pos += length;
+                return value;
+            case NULL:
+                return null;
+            default:
+                peeked = token;
+                throw unexpected(token);
+        }
+    }
+
+    /**
+     * Consume the next string and return its shared instance from {@link StringPool}, for fields that only take a few
+     * distinct values: status, type, service, country, currency...
+     * @return the string, null for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a string, a number or null
+     */
+    public String nextPooledString() throws IOException, ParseException {
+        if (peek() == Token.STRING) {
+            peeked = null;
+            return readString(STRING_POOLED);
+        }
+        return nextString();
+    }
+
+    /**
+     * Consume the next boolean
+     * @return the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a boolean
+     */
+    public boolean nextBoolean() throws IOException, ParseException {
+        expect(Token.BOOLEAN);
+        peeked = null;
+        return peekedBoolean;
+    }
+
+    /**
+     * Consume the next number, strings holding a number are accepted too
+     * @return the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a number
+     */
+    public double nextDouble() throws IOException, ParseException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            peeked = null;
+            String value = readString(STRING_NEW);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new ParseException(position(), ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+            }
+        }
+        expect(Token.NUMBER);
+        peeked = null;
+        int length = numberLength();
+        double value = parseDouble(pos, length);
+        pos += length;
+        return value;
+    }
+
+    /**
+     * Consume the next integral number, strings holding a number are accepted too
+     * @return the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not an integral number
+     */
+    public long nextLong() throws IOException, ParseException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            int length = numberLength();
+            int i = pos;
+            int end = pos + length;
+            boolean negative = buffer[i] == '-';
+            if (negative) {
+                i++;
+            }
+            int digits = end - i;
+            long value = 0;
+            for (; i < end; i++) {
+                char c = buffer[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (i == end && digits > 0) {
+                peeked = null;
+                pos = end;
+                if (digits > 18) {
+                    // may overflow, leave it to the JDK
+                    try {
+                        return Long.parseLong(new String(buffer, end - length, length));
+                    } catch (NumberFormatException e) {
+                        throw new ParseException(position(), ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+                    }
+                }
+                return negative ? -value : value;
+            }
+        }
+        double value = nextDouble();
+        if ((long) value != value) {
+            throw new ParseException(position(), ParseException.ERROR_UNEXPECTED_EXCEPTION, new NumberFormatException("Not an integer: " + value));
+        }
+        return (long) value;
+    }
+
+    /**
+     * @return the next number, null for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a number or null
+     * @see #nextDouble()
+     */
+    public Double nextNullableDouble() throws IOException, ParseException {
+        return skipNull() ? null : nextDouble();
+    }
+
+    /**
+     * @return the next integral number, null for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not an integral number or null
+     * @see #nextLong()
+     */
+    public Long nextNullableLong() throws IOException, ParseException {
+        return skipNull() ? null : nextLong();
+    }
+
+    /**
+     * Consume the next number as a fixed-point value, e.g. 100.5 is 100500 with 3 decimals. Its digits are read
+     * exactly, extra decimals are rounded to the nearest with halves away from zero. Strings holding a number are
+     * accepted too.
+     * @param scale number of decimals of the value, at most 18
+     * @return the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a number
+     */
+    public long nextFixed(int scale) throws IOException, ParseException {
+        if (peek() == Token.NUMBER) {
+            int length = numberLength();
+            int i = pos;
+            int end = pos + length;
+            boolean negative = buffer[i] == '-';
+            if (negative) {
+                i++;
+            }
+            long value = 0;
+            int digits = 0;
+            int decimals = -1;
+            boolean roundUp = false;
+            for (; i < end; i++) {
+                char c = buffer[i];
+                if (c >= '0' && c <= '9') {
+                    if (decimals < scale) {
+                        value = value * 10 + (c - '0');
+                        digits++;
+                        if (decimals >= 0) {
+                            decimals++;
+                        }
+                    } else if (decimals == scale) {
+                        roundUp = c >= '5';
+                        decimals++;
+                    }
+                } else if (c == '.' && decimals < 0 && digits > 0) {
+                    decimals = 0;
+                } else {
+                    break;
+                }
+            }
+            int padding = scale - Math.max(0, Math.min(decimals, scale));
+            if (i == end && digits > 0 && decimals != 0 && digits + padding <= 18) {
+                for (int k = 0; k < padding; k++) {
+                    value *= 10;
+                }
+                if (roundUp) {
+                    value++;
+                }
+                peeked = null;
+                pos = end;
+                return negative ? -value : value;
+            }
+        }
+        // exponent or too many digits
+        return Math.round(nextDouble() * POWERS_OF_TEN[scale]);
+    }
+
+    /**
+     * @param scale number of decimals of the value
+     * @param none value returned for a JSON null
+     * @return the next number as a fixed-point value, none for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not a number or null
+     * @see #nextFixed(int)
+     */
+    public long nextNullableFixed(int scale, long none) throws IOException, ParseException {
+        return skipNull() ? none : nextFixed(scale);
+    }
+
+    /**
+     * Consume the next value as json-simple would parse it: JSONObject, JSONArray, String, Long, Double, Boolean or
+     * null
+     * @return the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    @SuppressWarnings("unchecked")
+    public Object nextValue() throws IOException, ParseException {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    object.put(name, nextValue());
+                }
+                endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                beginArray();
+                while (hasNext()) {
+                    array.add(nextValue());
+                }
+                endArray();
+                return array;
+            case STRING:
+                // only the values known from the API are shared, other strings of the tree would churn the pool
+                peeked = null;
+                return readString(STRING_KNOWN);
+            case NUMBER:
+                int length = numberLength();
+                for (int i = pos; i < pos + length; i++) {
+                    char c = buffer[i];
+                    if (c == '.' || c == 'e' || c == 'E') {
+                        return nextDouble();
+                    }
+                }
+                return nextLong();
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                peeked = null;
+                return null;
+            default:
+                throw unexpected(token);
+        }
+    }
+
+    /**
+     * Consume the next object as a JSONObject
+     * @return the object, null for a JSON null
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the next token is not an object or null
+     * @see #nextValue()
+     */
+    public JSONObject nextObject() throws IOException, ParseException {
+        Token token = peek();
+        if (token != Token.BEGIN_OBJECT && token != Token.NULL) {
+            throw unexpected(token);
+        }
+        return (JSONObject) nextValue();
+    }
+
+    /**
+     * Consume the next value and return its JSON text, as written in the document, to be read later with
+     * {@link #JsonReader(String)}
+     * @return the JSON text of the value
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    public String nextRawValue() throws IOException, ParseException {
+        Token token = peek();
+        switch (token) {
+            case BOOLEAN:
+                peeked = null;
+                return peekedBoolean ? "true" : "false";
+            case NULL:
+                peeked = null;
+                return "null";
+            case NUMBER:
+                return nextString();
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+            case STRING:
+                // the opening character was the last one read
+                int start = pos - 1;
+                if (in == null) {
+                    skipValue();
+                    return new String(buffer, start, pos - start);
+                }
+                capture = new StringBuilder();
+                captureStart = start;
+                try {
+                    skipValue();
+                    capture.append(buffer, captureStart, pos - captureStart);
+                    return capture.toString();
+                } finally {
+                    capture = null;
+                }
+            default:
+                throw unexpected(token);
+        }
+    }
+
+    /**
+     * Consume the next token if it is null
+     * @return whether a null was consumed
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    public boolean skipNull() throws IOException, ParseException {
+        if (peek() == Token.NULL) {
+            peeked = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skip the next value, with all its content for an array or an object
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document is not valid JSON
+     */
+    public void skipValue() throws IOException, ParseException {
+        int depth = 0;
+        do {
+            Token token = peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    peeked = null;
+                    pos += numberLength();
+                    break;
+                case BOOLEAN:
+                case NULL:
+                    peeked = null;
+                    break;
+                default:
+                    throw unexpected(token);
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private Token doPeek() throws IOException, ParseException {
+        int scope = stack[stackSize - 1];
+        int c;
+        if (scope == EMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+        } else if (scope == NONEMPTY_ARRAY) {
+            c = nextNonWhitespace(true);
+            if (c == ']') {
+                return Token.END_ARRAY;
+            } else if (c != ',') {
+                throw unexpected((char) c);
+            }
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            stack[stackSize - 1] = DANGLING_NAME;
+            if (scope == NONEMPTY_OBJECT) {
+                c = nextNonWhitespace(true);
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                } else if (c != ',') {
+                    throw unexpected((char) c);
+                }
+            }
+            c = nextNonWhitespace(true);
+            if (c == '"') {
+                return Token.NAME;
+            } else if (c == '}' && scope == EMPTY_OBJECT) {
+                return Token.END_OBJECT;
+            }
+            throw unexpected((char) c);
+        } else if (scope == DANGLING_NAME) {
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+            c = nextNonWhitespace(true);
+            if (c != ':') {
+                throw unexpected((char) c);
+            }
+        } else if (scope == EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        } else {
+            c = nextNonWhitespace(false);
+            if (c == -1) {
+                return Token.END_DOCUMENT;
+            }
+            throw unexpected((char) c);
+        }
+
+        c = nextNonWhitespace(true);
+        switch (c) {
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '"':
+                return Token.STRING;
+            case 't':
+                readLiteral("rue");
+                peekedBoolean = true;
+                return Token.BOOLEAN;
+            case 'f':
+                readLiteral("alse");
+                peekedBoolean = false;
+                return Token.BOOLEAN;
+            case 'n':
+                readLiteral("ull");
+                return Token.NULL;
+            case ']':
+                if (scope == EMPTY_ARRAY) {
+                    return Token.END_ARRAY;
+                }
+                break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+        }
+        throw unexpected((char) c);
+    }
+
+    private void expect(Token token) throws IOException, ParseException {
+        Token next = peek();
+        if (next != token) {
+            throw unexpected(next);
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private int position() {
+        return consumed + pos;
+    }
+
+    private ParseException unexpected(Object found) {
+        if (found instanceof Character) {
+            return new ParseException(position() - 1, ParseException.ERROR_UNEXPECTED_CHAR, found);
+        }
+        return new ParseException(position(), ParseException.ERROR_UNEXPECTED_TOKEN, found);
+    }
+
+    private ParseException endOfInput() {
+        return new ParseException(position(), ParseException.ERROR_UNEXPECTED_EXCEPTION, new EOFException("End of input"));
+    }
+
+    /**
+     * Make sure that at least the given number of characters are available from pos, which is moved to the start of
+     * the buffer
+     */
+    private boolean fill(int minimum) throws IOException, ParseException {
+        if (in == null) {
+            return limit - pos >= minimum;
+        }
+        if (pos > 0) {
+            if (capture != null) {
+                capture.append(buffer, captureStart, pos - captureStart);
+                captureStart = 0;
+            }
+            consumed += pos;
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (minimum > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(minimum, buffer.length * 2));
+        }
+        while (limit < minimum) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    private int nextNonWhitespace(boolean required) throws IOException, ParseException {
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                if (required) {
+                    throw endOfInput();
+                }
+                return -1;
+            }
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private void readLiteral(String rest) throws IOException, ParseException {
+        if (limit - pos < rest.length() && !fill(rest.length())) {
+            throw endOfInput();
+        }
+        for (int i = 0; i < rest.length(); i++) {
+            if (buffer[pos] != rest.charAt(i)) {
+                pos++;
+                throw unexpected(buffer[pos - 1]);
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Read a string whose opening quote is consumed
+     */
+    private String readString(int mode) throws IOException, ParseException {
+        StringBuilder builder = null;
+        while (true) {
+            int p = pos;
+            int l = limit;
+            int start = p;
+            while (p < l) {
+                char c = buffer[p++];
+                if (c == '"') {
+                    pos = p;
+                    if (builder == null) {
+                        return newString(mode, start, p - start - 1);
+                    }
+                    builder.append(buffer, start, p - start - 1);
+                    return mode == STRING_POOLED ? StringPool.intern(builder.toString()) : builder.toString();
+                } else if (c == '\\') {
+                    pos = p;
+                    if (builder == null) {
+                        builder = new StringBuilder(Math.max((p - start) * 2, 16));
+                    }
+                    builder.append(buffer, start, p - start - 1);
+                    builder.append(readEscape());
+                    p = pos;
+                    l = limit;
+                    start = p;
+                }
+            }
+            if (builder == null) {
+                builder = new StringBuilder(Math.max((p - start) * 2, 16));
+            }
+            builder.append(buffer, start, p - start);
+            pos = p;
+            if (!fill(1)) {
+                throw endOfInput();
+            }
+        }
+    }
+
+    private String newString(int mode, int start, int length) {
+        switch (mode) {
+            case STRING_NAME:
+                return name(start, length);
+            case STRING_POOLED:
+                return StringPool.intern(buffer, start, length);
+            case STRING_KNOWN:
+                String known = StringPool.known(buffer, start, length);
+                return known != null ? known : new String(buffer, start, length);
+            default:
+                return new String(buffer, start, length);
+        }
+    }
+
+    private void skipString() throws IOException, ParseException {
+        while (true) {
+            while (pos < limit) {
+                char c = buffer[pos++];
+                if (c == '"') {
+                    return;
+                } else if (c == '\\') {
+                    readEscape();
+                }
+            }
+            if (!fill(1)) {
+                throw endOfInput();
+            }
+        }
+    }
+
+    private char readEscape() throws IOException, ParseException {
+        if (pos == limit && !fill(1)) {
+            throw endOfInput();
+        }
+        char c = buffer[pos++];
+        switch (c) {
+            case 'u':
+                if (limit - pos < 4 && !fill(4)) {
+                    throw endOfInput();
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buffer[pos++], 16);
+                    if (digit < 0) {
+                        throw unexpected(buffer[pos - 1]);
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw unexpected(c);
+        }
+    }
+
+    private String name(int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        String cached = names[index];
+        if (cached != null && cached.length() == length) {
+            int i = 0;
+            while (i < length && cached.charAt(i) == buffer[start + i]) {
+                i++;
+            }
+            if (i == length) {
+                return cached;
+            }
+        }
+        String name = new String(buffer, start, length);
+        names[index] = name;
+        return name;
+    }
+
+    /**
+     * Length of the number starting at pos, which is entirely in the buffer afterwards
+     */
+    private int numberLength() throws IOException, ParseException {
+        int i = 0;
+        while (true) {
+            if (pos + i == limit && !fill(i + 1)) {
+                return i;
+            }
+            char c = buffer[pos + i];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                i++;
+            } else {
+                return i;
+            }
+        }
+    }
+
+    private double parseDouble(int start, int length) throws ParseException {
+        // exact when the digits fit the 53 bits of a double and the power of ten is exact too
+        int i = start;
+        int end = start + length;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean fast = i < end;
+        for (; i < end && fast; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+                fast = digits <= 15;
+            } else if (c == '.' && !fraction && digits > 0) {
+                fraction = true;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(buffer, start, length));
+        } catch (NumberFormatException e) {
+            throw new ParseException(position(), ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+        }
+    }
+}
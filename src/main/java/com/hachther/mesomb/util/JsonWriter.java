@@ -0,0 +1,333 @@
+package com.hachther.mesomb.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writes a JSON document as UTF-8 bytes in the order of the calls, without building a JSONObject first.
+ *
+ * Only quotes, backslashes and control characters are escaped in strings, other characters are written as UTF-8.
+ * Numbers are written as json-simple writes them.
+ */
+public class JsonWriter {
+    private static final int BUFFER_SIZE = 256;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private byte[] buffer;
+    private int count;
+
+    // one bit per open object or array, set once it has an element
+    private long nonEmpty;
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter() {
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Write the name of the next member of the current object
+     * @param name the name
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Name outside of an object: " + name);
+        }
+        separate();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        writeDigits(value, 1);
+        return this;
+    }
+
+    /**
+     * Write a fixed-point decimal exactly, with at least one decimal as {@link Double#toString(double)} does, e.g.
+     * 100500 with scale 3 is written as 100.5 and 100000 as 100.0
+     * @param unscaled the unscaled value
+     * @param scale the number of decimals of the value, between 0 and 18
+     * @return this writer
+     */
+    public JsonWriter value(long unscaled, int scale) {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + (POWERS_OF_TEN.length - 1) + ": " + scale);
+        }
+        beforeValue();
+        if (unscaled == Long.MIN_VALUE) {
+            writeAscii(BigDecimal.valueOf(unscaled, scale).toPlainString());
+            return this;
+        }
+        if (unscaled < 0) {
+            write('-');
+            unscaled = -unscaled;
+        }
+        long fraction = unscaled % POWERS_OF_TEN[scale];
+        writeDigits(unscaled / POWERS_OF_TEN[scale], 1);
+        write('.');
+        if (fraction == 0) {
+            write('0');
+            return this;
+        }
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            scale--;
+        }
+        writeDigits(fraction, scale);
+        return this;
+    }
+
+    /**
+     * Write a number as json-simple does, NaN and infinities are written as null
+     * @param value the number
+     * @return this writer
+     */
+    public JsonWriter value(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Write any value json-simple can serialize: null, String, Number, Boolean, Map, Iterable or array of them.
+     * Other values are written as their string.
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(Object value) {
+        if (value == null) {
+            return nullValue();
+        } else if (value instanceof String) {
+            return value((String) value);
+        } else if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        } else if (value instanceof Double) {
+            return value(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            if (Float.isNaN(f) || Float.isInfinite(f)) {
+                return nullValue();
+            }
+            beforeValue();
+            writeAscii(Float.toString(f));
+            return this;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            beforeValue();
+            writeAscii(value.toString());
+            return this;
+        } else if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                value(entry.getValue());
+            }
+            return endObject();
+        } else if (value instanceof Iterable) {
+            beginArray();
+            for (Object item : (Iterable<?>) value) {
+                value(item);
+            }
+            return endArray();
+        } else if (value instanceof Object[]) {
+            beginArray();
+            for (Object item : (Object[]) value) {
+                value(item);
+            }
+            return endArray();
+        }
+        return value(value.toString());
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeAscii("null");
+        return this;
+    }
+
+    /**
+     * @return the document written so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    private JsonWriter open(char c) {
+        beforeValue();
+        if (depth == 63) {
+            throw new IllegalStateException("Nesting too deep");
+        }
+        write(c);
+        depth++;
+        nonEmpty &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Nothing to close");
+        }
+        depth--;
+        write(c);
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            separate();
+        }
+    }
+
+    private void separate() {
+        long bit = 1L << depth;
+        if ((nonEmpty & bit) != 0) {
+            write(',');
+        }
+        nonEmpty |= bit;
+    }
+
+    private void writeString(String value) {
+        int length = value.length();
+        // worst case of 6 bytes for a control character
+        ensure(length * 6 + 2);
+        byte[] b = buffer;
+        int n = count;
+        b[n++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                b[n++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                b[n++] = '\\';
+                b[n++] = (byte) c;
+            } else if (c < 0x20) {
+                b[n++] = '\\';
+                switch (c) {
+                    case '\b': b[n++] = 'b'; break;
+                    case '\f': b[n++] = 'f'; break;
+                    case '\n': b[n++] = 'n'; break;
+                    case '\r': b[n++] = 'r'; break;
+                    case '\t': b[n++] = 't'; break;
+                    default:
+                        b[n++] = 'u';
+                        b[n++] = '0';
+                        b[n++] = '0';
+                        b[n++] = HEX[c >> 4];
+                        b[n++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | c >> 6);
+                b[n++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                b[n++] = (byte) (0xF0 | cp >> 18);
+                b[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                b[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                b[n++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired, replaced as String.getBytes does
+                b[n++] = '?';
+            } else {
+                b[n++] = (byte) (0xE0 | c >> 12);
+                b[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                b[n++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        b[n++] = '"';
+        count = n;
+    }
+
+    // value must be positive, it is padded with zeros to the minimum length
+    private void writeDigits(long value, int minLength) {
+        int length = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            length++;
+        }
+        length = Math.max(length, minLength);
+        ensure(length);
+        for (int i = count + length - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count += length;
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void write(char c) {
+        ensure(1);
+        buffer[count++] = (byte) c;
+    }
+
+    private void ensure(int length) {
+        if (count + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + length));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hachther.mesomb.util;
+
+import java.util.Currency;
+
+/**
+ * Amounts are carried by the models and requests as a primitive long with {@link #SCALE} decimals, e.g. 100.5 is
+ * 100500, so that they are exact. Amounts with more decimals are rounded to the nearest, the extra decimals are lost;
+ * they are below the minor unit of every currency. This class converts them to and from the minor units of a
+ * currency.
+ */
+public final class Money {
+    /** Number of decimals of the fixed-point amounts, enough for the minor unit of every currency; further ones are rounded */
+    public static final int SCALE = 3;
+
+    /** Fixed-point value of an absent amount */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CURRENCY_SCALE = 2;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000};
+
+    private Money() {
+    }
+
+    /**
+     * Get the number of decimals of the minor unit of the currency as defined by ISO 4217, e.g. 0 for XAF and XOF,
+     * 2 for EUR
+     *
+     * @param currency ISO 4217 code of the currency, or null
+     * @return the number of decimals, 2 for an unknown currency or one without minor unit
+     */
+    public static int scale(String currency) {
+        if (currency == null) {
+            return DEFAULT_CURRENCY_SCALE;
+        }
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits >= 0 && digits <= SCALE ? digits : DEFAULT_CURRENCY_SCALE;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_CURRENCY_SCALE;
+        }
+    }
+
+    /**
+     * Convert an amount to fixed point, rounded to {@link #SCALE} decimals: 1.0006 becomes 1001, the extra decimals are
+     * lost
+     *
+     * @param amount the amount
+     * @return the fixed-point amount
+     */
+    public static long of(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount) || Math.abs(amount) >= Long.MAX_VALUE / POWERS_OF_TEN[SCALE]) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        return Math.round(amount * POWERS_OF_TEN[SCALE]);
+    }
+
+    /**
+     * Convert a number parsed by json-simple to fixed point
+     *
+     * @param amount a Long, a Double or null
+     * @return the fixed-point amount, {@link #NONE} for null or a value that is not a number
+     */
+    public static long of(Object amount) {
+        if (!(amount instanceof Number)) {
+            return NONE;
+        }
+        if (amount instanceof Long || amount instanceof Integer) {
+            return Math.multiplyExact(((Number) amount).longValue(), POWERS_OF_TEN[SCALE]);
+        }
+        return of(((Number) amount).doubleValue());
+    }
+
+    /**
+     * Convert an amount in minor units to fixed point
+     *
+     * @param minor the amount in minor units, e.g. cents
+     * @param scale the number of decimals of the minor unit, at most {@link #SCALE}
+     * @return the fixed-point amount
+     */
+    public static long fromMinor(long minor, int scale) {
+        return Math.multiplyExact(minor, POWERS_OF_TEN[SCALE - checkScale(scale)]);
+    }
+
+    /**
+     * Convert a fixed-point amount to minor units, rounded to the nearest with halves away from zero
+     *
+     * @param amount the fixed-point amount
+     * @param scale the number of decimals of the minor unit, at most {@link #SCALE}
+     * @return the amount in minor units
+     */
+    public static long toMinor(long amount, int scale) {
+        long factor = POWERS_OF_TEN[SCALE - checkScale(scale)];
+        long half = factor / 2;
+        return amount >= 0 ? (amount + half) / factor : -((-amount + half) / factor);
+    }
+
+    /**
+     * @param amount the fixed-point amount
+     * @return the amount as a double
+     */
+    public static double toDouble(long amount) {
+        return amount / (double) POWERS_OF_TEN[SCALE];
+    }
+
+    /**
+     * @param amount the fixed-point amount, or {@link #NONE}
+     * @return the amount as a Double, null for {@link #NONE}
+     */
+    public static Double toBoxed(long amount) {
+        return amount == NONE ? null : toDouble(amount);
+    }
+
+    private static int checkScale(int scale) {
+        if (scale < 0 || scale > SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + SCALE + ": " + scale);
+        }
+        return scale;
+    }
+}
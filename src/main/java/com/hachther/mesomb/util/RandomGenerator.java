@@ -1,11 +1,39 @@
 package com.hachther.mesomb.util;
 
+import com.hachther.mesomb.MeSomb;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Helper class to generate random string for nonce
  */
 public class RandomGenerator {
+    private static final byte[] CHARACTERS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 512;
+    private static final int COUNTER_LENGTH = 11; // 62^11 > 2^64
+
+    // SecureRandom output is read in blocks from a few independent generators, a thread takes the first free one
+    // instead of waiting on a single shared generator
+    private static final Stripe[] STRIPES = new Stripe[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2];
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    static {
+        for (int i = 0; i < STRIPES.length; i++) {
+            STRIPES[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Generate a nonce of 40 characters, unique in the process when {@link MeSomb#uniqueNonces} is set
+     *
+     * @return String
+     */
     public static String nonce() {
-        return nonce(40);
+        return MeSomb.uniqueNonces ? uniqueNonce(40) : nonce(40);
     }
 
     /**
@@ -15,13 +43,72 @@ public class RandomGenerator {
      * @return String
      */
     public static String nonce(int length) {
-        String characters = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        StringBuilder s = new StringBuilder(length);
-        int i;
-        for ( i=0; i<length; i++) {
-            int ch = (int)(characters.length() * Math.random());
-            s.append(characters.charAt(ch));
+        byte[] nonce = new byte[length];
+        fill(nonce, 0);
+        return new String(nonce, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Generate a random string by the length that no other call in this process returns. It starts with a counter
+     * on 11 characters followed by random characters.
+     *
+     * @param length size of the nonce to generate, more than 11
+     * @return String
+     */
+    public static String uniqueNonce(int length) {
+        if (length <= COUNTER_LENGTH) {
+            throw new IllegalArgumentException("Unique nonces must be longer than " + COUNTER_LENGTH + " characters");
         }
-        return s.toString();
+        byte[] nonce = new byte[length];
+        long counter = COUNTER.getAndIncrement();
+        for (int i = COUNTER_LENGTH - 1; i >= 0; i--) {
+            nonce[i] = CHARACTERS[(int) Long.remainderUnsigned(counter, CHARACTERS.length)];
+            counter = Long.divideUnsigned(counter, CHARACTERS.length);
+        }
+        fill(nonce, COUNTER_LENGTH);
+        return new String(nonce, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void fill(byte[] nonce, int from) {
+        Stripe stripe = lockStripe();
+        try {
+            byte[] buffer = stripe.buffer;
+            int position = stripe.position;
+            for (int i = from; i < nonce.length; ) {
+                if (position == BUFFER_SIZE) {
+                    stripe.random.nextBytes(buffer);
+                    position = 0;
+                }
+                // 6 random bits, the 2 values out of the alphabet are dropped to keep the characters uniform
+                int v = buffer[position++] & 0x3F;
+                if (v < CHARACTERS.length) {
+                    nonce[i++] = CHARACTERS[v];
+                }
+            }
+            stripe.position = position;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static Stripe lockStripe() {
+        int mask = STRIPES.length - 1;
+        int index = ThreadLocalRandom.current().nextInt() & mask;
+        for (int i = 0; i < STRIPES.length; i++) {
+            Stripe stripe = STRIPES[(index + i) & mask];
+            if (stripe.lock.tryLock()) {
+                return stripe;
+            }
+        }
+        Stripe stripe = STRIPES[index];
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    private static class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final SecureRandom random = new SecureRandom();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int position = BUFFER_SIZE;
     }
 }
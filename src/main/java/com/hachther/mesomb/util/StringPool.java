@@ -0,0 +1,158 @@
+package com.hachther.mesomb.util;
+
+/**
+ * Shared instances of the short values repeated in every model: status, type, service, country, currency...
+ *
+ * The values known from the API always map to the same instance. Other values are kept in a bounded table of
+ * {@link #TABLE_SIZE} entries, where a new value replaces the one with the same slot, so that the pool cannot grow
+ * with the values it is given. The table is read and written without locking: a String is safely published through
+ * its final fields, and a lost update only means that a value is not shared.
+ */
+public final class StringPool {
+    /** Values longer than this are not pooled, they are rarely repeated */
+    public static final int MAX_LENGTH = 24;
+
+    private static final int TABLE_SIZE = 1024;
+    private static final int KNOWN_SIZE = 128;
+    private static final String[] KNOWN_VALUES = {
+            // status
+            "SUCCESS", "FAILED", "PENDING", "ERROR", "CANCELED",
+            // type
+            "COLLECT", "DEPOSIT", "PAYMENT", "AIRTIME", "WITHDRAWAL", "TRANSFER", "CREDIT", "DEBIT", "REFUND",
+            // service
+            "MTN", "ORANGE", "AIRTEL", "MOOV", "NEXTTEL", "MESOMB",
+            // country
+            "CM", "NE",
+            // currency
+            "XAF", "XOF", "EUR", "USD",
+            // gender
+            "MAN", "WOMAN",
+    };
+
+    private static final String[] KNOWN = new String[KNOWN_SIZE];
+    private static final String[] TABLE = new String[TABLE_SIZE];
+
+    static {
+        for (String value : KNOWN_VALUES) {
+            int index = hash(value) & (KNOWN_SIZE - 1);
+            while (KNOWN[index] != null) {
+                index = (index + 1) & (KNOWN_SIZE - 1);
+            }
+            KNOWN[index] = value;
+        }
+    }
+
+    private StringPool() {
+    }
+
+    /**
+     * Get the shared instance of a value
+     *
+     * @param value the value, or null
+     * @return the shared instance, the value itself if it is not pooled
+     */
+    public static String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int hash = hash(value);
+        String known = known(hash, value);
+        if (known != null) {
+            return known;
+        }
+        int index = hash & (TABLE_SIZE - 1);
+        String cached = TABLE[index];
+        if (value.equals(cached)) {
+            return cached;
+        }
+        TABLE[index] = value;
+        return value;
+    }
+
+    /**
+     * Get the shared instance of the value held by a buffer, without creating a String when it is pooled
+     *
+     * @param buffer the characters
+     * @param start index of the first character of the value
+     * @param length length of the value
+     * @return the shared instance
+     */
+    public static String intern(char[] buffer, int start, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(buffer, start, length);
+        }
+        int hash = hash(buffer, start, length);
+        String known = known(hash, buffer, start, length);
+        if (known != null) {
+            return known;
+        }
+        int index = hash & (TABLE_SIZE - 1);
+        String cached = TABLE[index];
+        if (matches(cached, buffer, start, length)) {
+            return cached;
+        }
+        String value = new String(buffer, start, length);
+        TABLE[index] = value;
+        return value;
+    }
+
+    /**
+     * Get the shared instance of the value held by a buffer if it is one of the values known from the API. Unlike
+     * {@link #intern(char[], int, int)} the value is not added to the pool.
+     *
+     * @param buffer the characters
+     * @param start index of the first character of the value
+     * @param length length of the value
+     * @return the shared instance, null if the value is not known
+     */
+    public static String known(char[] buffer, int start, int length) {
+        if (length > MAX_LENGTH) {
+            return null;
+        }
+        return known(hash(buffer, start, length), buffer, start, length);
+    }
+
+    private static String known(int hash, String value) {
+        for (int index = hash & (KNOWN_SIZE - 1); KNOWN[index] != null; index = (index + 1) & (KNOWN_SIZE - 1)) {
+            if (KNOWN[index].equals(value)) {
+                return KNOWN[index];
+            }
+        }
+        return null;
+    }
+
+    private static String known(int hash, char[] buffer, int start, int length) {
+        for (int index = hash & (KNOWN_SIZE - 1); KNOWN[index] != null; index = (index + 1) & (KNOWN_SIZE - 1)) {
+            if (matches(KNOWN[index], buffer, start, length)) {
+                return KNOWN[index];
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String value, char[] buffer, int start, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != buffer[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // same as String.hashCode, spread over the low bits
+    private static int hash(String value) {
+        int hash = value.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(char[] buffer, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
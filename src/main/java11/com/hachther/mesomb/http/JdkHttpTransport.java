@@ -0,0 +1,188 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.MeSomb;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport based on the HTTP client of the JDK ({@code java.net.http}).
+ *
+ * HTTP/2 is negotiated when the server supports it, in which case concurrent requests are multiplexed over a single
+ * connection instead of each taking one from the pool. It does not need OkHttp.
+ *
+ * The timeout covers the whole exchange: the client stops waiting once the headers are late, and the body fails with a
+ * {@link HttpTimeoutException} when it is still being received at the end of the time left.
+ */
+public class JdkHttpTransport implements HttpTransport {
+    private final HttpClient client;
+
+    /**
+     * Create a transport preferring HTTP/2, with the connect timeout defined on {@link MeSomb}
+     */
+    public JdkHttpTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(MeSomb.connectTimeout))
+                .build());
+    }
+
+    /**
+     * Create a transport on top of an existing client
+     *
+     * @param client the HttpClient to use
+     */
+    public JdkHttpTransport(HttpClient client) {
+        this.client = client;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        long deadline = System.nanoTime() + getTimeout(request).toNanos();
+        try {
+            return toResponse(client.send(toRequest(request), HttpResponse.BodyHandlers.ofInputStream()), deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for the response");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+        long deadline = System.nanoTime() + getTimeout(request).toNanos();
+        CompletableFuture<HttpResponse<InputStream>> call = client.sendAsync(toRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<TransportResponse> future = call.thenApply(response -> toResponse(response, deadline));
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Release the client when the JDK supports it (21+), otherwise its resources are freed once it is unreachable
+     */
+    @Override
+    public void close() {
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private static Duration getTimeout(TransportRequest request) {
+        Duration timeout = Duration.ofSeconds(MeSomb.requestTimeout);
+        if (request.getTimeout() != null && request.getTimeout().compareTo(timeout) < 0) {
+            timeout = request.getTimeout().isZero() || request.getTimeout().isNegative() ? Duration.ofNanos(1) : request.getTimeout();
+        }
+        return timeout;
+    }
+
+    private static HttpRequest toRequest(TransportRequest request) {
+        // the JDK client has no separate write and read timeouts, this one runs until the response headers arrive and
+        // the body gets the time left, see TimedBody
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+                .timeout(getTimeout(request));
+        request.getHeaders().forEach(builder::header);
+        if (request.getHeader("Accept-Encoding") == null) {
+            builder.header("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        }
+        if (request.getContentType() != null) {
+            builder.header("Content-Type", request.getContentType());
+        }
+        byte[] body = request.getBody();
+        return builder.method(request.getMethod(), body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static TransportResponse toResponse(HttpResponse<InputStream> response, long deadline) {
+        InputStream body = new TimedBody(response.body(), deadline - System.nanoTime());
+        return new TransportResponse(response.statusCode(), response.headers().map(), body);
+    }
+
+    /**
+     * Body closed when it is not received in time. A read blocked on a stalled connection is released by the close
+     * and fails instead of returning a truncated body.
+     */
+    private static final class TimedBody extends FilterInputStream {
+        private final CompletableFuture<Void> timer;
+        private volatile boolean expired;
+
+        TimedBody(InputStream body, long timeoutNanos) {
+            super(body);
+            // orTimeout drops its scheduled task once the future is completed, i.e. when the body is read or closed
+            this.timer = new CompletableFuture<Void>().orTimeout(Math.max(1, timeoutNanos), TimeUnit.NANOSECONDS);
+            this.timer.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    this.expired = true;
+                    try {
+                        body.close();
+                    } catch (IOException ignoredClose) {
+                    }
+                }
+            });
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return checkRead(super.read());
+            } catch (IOException e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return checkRead(super.read(b, off, len));
+            } catch (IOException e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            timer.complete(null);
+            super.close();
+        }
+
+        private int checkRead(int result) throws IOException {
+            if (expired) {
+                throw new HttpTimeoutException("Timed out while receiving the response body");
+            }
+            if (result == -1) {
+                timer.complete(null);
+            }
+            return result;
+        }
+
+        // the closed stream may fail in its own way, report the timeout instead
+        private IOException failure(IOException e) {
+            if (!expired || e instanceof HttpTimeoutException) {
+                return e;
+            }
+            HttpTimeoutException exception = new HttpTimeoutException("Timed out while receiving the response body");
+            exception.initCause(e);
+            return exception;
+        }
+    }
+}
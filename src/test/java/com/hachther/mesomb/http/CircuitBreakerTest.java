@@ -0,0 +1,92 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.exceptions.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CircuitBreakerTest {
+    private static final long FAST = 1000000L;
+
+    @Test
+    public void testOpensOnFailureRate() throws CircuitBreakerOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 100, 1000, 4, 4, 60000, 1);
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(breaker.acquire("payment", "app"), FAST, i > 0);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("payment", "app"));
+        breaker.onResult(breaker.acquire("payment", "app"), FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState("payment", "app"));
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.acquire("payment", "app"));
+    }
+
+    @Test
+    public void testCircuitsAreIsolatedPerTarget() throws CircuitBreakerOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 100, 1000, 2, 2, 60000, 1);
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquire("payment", "app1"), FAST, true);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState("payment", "app1"));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("payment", "app2"));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("wallet", "app1"));
+        breaker.acquire("payment", "app2");
+    }
+
+    @Test
+    public void testOpensOnSlowCalls() throws CircuitBreakerOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 50, 10, 2, 2, 60000, 1);
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquire("wallet", "provider"), 20 * FAST, false);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState("wallet", "provider"));
+    }
+
+    @Test
+    public void testHalfOpenClosesAfterSuccessfulTrial() throws CircuitBreakerOpenException, InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 100, 1000, 2, 2, 20, 1);
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquire("fundraising", "fund"), FAST, true);
+        }
+        Thread.sleep(30);
+        CircuitBreaker.Permit trial = breaker.acquire("fundraising", "fund");
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("fundraising", "fund"));
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.acquire("fundraising", "fund"));
+        breaker.onResult(trial, FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("fundraising", "fund"));
+    }
+
+    @Test
+    public void testHalfOpenReopensAfterFailedTrial() throws CircuitBreakerOpenException, InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 100, 1000, 2, 2, 20, 1);
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquire("payment", "app"), FAST, true);
+        }
+        Thread.sleep(30);
+        breaker.onResult(breaker.acquire("payment", "app"), FAST, true);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState("payment", "app"));
+    }
+
+    @Test
+    public void testCallSentWhileClosedIsNotATrial() throws CircuitBreakerOpenException, InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(50, 100, 1000, 2, 2, 20, 1);
+        CircuitBreaker.Permit early = breaker.acquire("payment", "app");
+        CircuitBreaker.Permit cancelled = breaker.acquire("payment", "app");
+        for (int i = 0; i < 2; i++) {
+            breaker.onResult(breaker.acquire("payment", "app"), FAST, true);
+        }
+        Thread.sleep(30);
+        CircuitBreaker.Permit trial = breaker.acquire("payment", "app");
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("payment", "app"));
+
+        // the calls sent while closed neither free the trial slot nor decide the state
+        breaker.onResult(early, FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("payment", "app"));
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.acquire("payment", "app"));
+        breaker.release(cancelled);
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.acquire("payment", "app"));
+
+        breaker.onResult(trial, FAST, true);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState("payment", "app"));
+    }
+}
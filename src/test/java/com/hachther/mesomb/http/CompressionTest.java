@@ -0,0 +1,70 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CompressionTest {
+    private static final byte[] BODY = "{\"amount\":100,\"service\":\"MTN\",\"payer\":\"670000000\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] deflate(byte[] body, boolean nowrap) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(output, new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap))) {
+            deflater.write(body);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] decode(String encoding, byte[] body) throws IOException {
+        try (InputStream input = Compression.decode(encoding, new ByteArrayInputStream(body))) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws IOException {
+        Assertions.assertArrayEquals(BODY, decode("gzip", Compression.gzip(BODY)));
+        Assertions.assertArrayEquals(BODY, decode(null, BODY));
+        Assertions.assertArrayEquals(BODY, decode("identity", BODY));
+    }
+
+    @Test
+    public void testDeflateWithAndWithoutZlibHeader() throws IOException {
+        Assertions.assertArrayEquals(BODY, decode("deflate", deflate(BODY, false)));
+        Assertions.assertArrayEquals(BODY, decode("deflate", deflate(BODY, true)));
+    }
+
+    @Test
+    public void testEmptyBody() throws IOException {
+        Assertions.assertEquals(0, decode("gzip", new byte[0]).length);
+        Assertions.assertEquals(0, decode("deflate", new byte[0]).length);
+        TransportResponse response = new TransportResponse(204, Collections.singletonMap("Content-Encoding", List.of("gzip")), new ByteArrayInputStream(new byte[0]));
+        try (TransportResponse r = response) {
+            Assertions.assertEquals("", r.getBodyString());
+        }
+    }
+
+    @Test
+    public void testUnsupportedEncoding() {
+        assertThrows(IOException.class, () -> decode("br", BODY));
+    }
+
+    @Test
+    public void testResponseIsDecodedWhenRead() throws IOException {
+        TransportResponse response = new TransportResponse(200, Collections.singletonMap("Content-Encoding", List.of("gzip")), new ByteArrayInputStream(Compression.gzip(BODY)));
+        try (TransportResponse r = response) {
+            Assertions.assertEquals(new String(BODY, StandardCharsets.UTF_8), r.getBodyString());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyLimiterTest {
+    private static final long RTT = 10000000L;
+
+    @Test
+    public void testQueuesAboveLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, 2.0);
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireAsync("/collect", started::incrementAndGet);
+        }
+        Assertions.assertEquals(2, started.get());
+        limiter.release("/collect", RTT, false);
+        Assertions.assertEquals(3, started.get());
+    }
+
+    @Test
+    public void testDecreasesOnDropAndSlowCalls() throws InterruptedIOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 20, 0.5, 2.0);
+        limiter.acquire("/collect");
+        limiter.release("/collect", RTT, false);
+        limiter.acquire("/collect");
+        limiter.release("/collect", RTT, true);
+        Assertions.assertEquals(5, limiter.getLimit("/collect"));
+        limiter.acquire("/collect");
+        limiter.release("/collect", 3 * RTT, false);
+        Assertions.assertEquals(2, limiter.getLimit("/collect"));
+        limiter.acquire("/collect");
+        limiter.release("/collect", RTT, true);
+        Assertions.assertEquals(2, limiter.getLimit("/collect"));
+        Assertions.assertEquals(10, limiter.getLimit("/deposit"));
+    }
+
+    @Test
+    public void testIncreasesOnSuccess() throws InterruptedIOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 3, 0.5, 2.0);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("/status");
+            limiter.release("/status", RTT, false);
+        }
+        Assertions.assertEquals(3, limiter.getLimit("/status"));
+    }
+
+    @Test
+    public void testBlockingAcquireWaitsForRelease() throws InterruptedException, InterruptedIOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0.5, 2.0);
+        limiter.acquire("/collect");
+        CountDownLatch acquired = new CountDownLatch(1);
+        List<Throwable> errors = new ArrayList<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire("/collect");
+                acquired.countDown();
+            } catch (InterruptedIOException e) {
+                errors.add(e);
+            }
+        });
+        waiter.start();
+        Assertions.assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limiter.release("/collect", RTT, false);
+        Assertions.assertTrue(acquired.await(1, TimeUnit.SECONDS));
+        waiter.join();
+        Assertions.assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testInterruptedWaiterGivesBackItsSlot() throws InterruptedException, InterruptedIOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0.5, 2.0);
+        limiter.acquire("/collect");
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire("/collect");
+            } catch (InterruptedIOException ignored) {
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        waiter.interrupt();
+        waiter.join();
+        limiter.release("/collect");
+        AtomicInteger started = new AtomicInteger();
+        limiter.acquireAsync("/collect", started::incrementAndGet);
+        Assertions.assertEquals(1, started.get());
+    }
+
+    @Test
+    public void testTimedAcquireGivesUp() throws InterruptedIOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0.5, 2.0);
+        limiter.acquire("/collect");
+        long start = System.nanoTime();
+        Assertions.assertThrows(InterruptedIOException.class, () -> limiter.acquire("/collect", 50, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        limiter.release("/collect");
+        AtomicInteger started = new AtomicInteger();
+        limiter.acquireAsync("/collect", started::incrementAndGet);
+        Assertions.assertEquals(1, started.get());
+    }
+}
@@ -0,0 +1,46 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeadlineTest {
+    @Test
+    public void testScopesKeepEarliestDeadline() {
+        Assertions.assertNull(Deadline.current());
+        Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline.Scope scope = outer.enter();
+        try (scope) {
+            Assertions.assertSame(outer, Deadline.current());
+            Deadline.Scope later = Deadline.after(1, TimeUnit.HOURS).enter();
+            try (later) {
+                Assertions.assertSame(outer, Deadline.current());
+            }
+            Deadline inner = Deadline.after(10, TimeUnit.MILLISECONDS);
+            Deadline.Scope earlier = inner.enter();
+            try (earlier) {
+                Assertions.assertSame(inner, Deadline.current());
+            }
+            Assertions.assertSame(outer, Deadline.current());
+        }
+        Assertions.assertNull(Deadline.current());
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedIOException {
+        Deadline deadline = Deadline.at(Instant.now().plusSeconds(60));
+        Assertions.assertFalse(deadline.isExpired());
+        Assertions.assertTrue(deadline.remainingNanos() > TimeUnit.SECONDS.toNanos(59));
+        deadline.check();
+        Deadline expired = Deadline.after(-1, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(expired.isExpired());
+        assertThrows(InterruptedIOException.class, expired::check);
+        Assertions.assertSame(expired, deadline.min(expired));
+        Assertions.assertSame(deadline, deadline.min(null));
+    }
+}
@@ -0,0 +1,27 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class HedgingPolicyTest {
+    @Test
+    public void testFixedDelay() {
+        HedgingPolicy policy = new HedgingPolicy(200);
+        policy.record("/api/v1.1/payment/status/", TimeUnit.MILLISECONDS.toNanos(10));
+        Assertions.assertEquals(200, policy.getDelayMillis("/api/v1.1/payment/status/"));
+    }
+
+    @Test
+    public void testAdaptiveDelayUsesPercentile() {
+        HedgingPolicy policy = new HedgingPolicy(200, 95);
+        Assertions.assertEquals(200, policy.getDelayMillis("/api/v1.1/payment/status/"));
+        for (int i = 1; i <= 100; i++) {
+            policy.record("/api/v1.1/payment/status/", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        long delay = policy.getDelayMillis("/api/v1.1/payment/status/");
+        Assertions.assertTrue(delay >= 85 && delay <= 95, "delay " + delay);
+        Assertions.assertEquals(200, policy.getDelayMillis("/api/v1.1/payment/transactions/check/"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hachther.mesomb.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class HttpTransportTest {
+    private static HttpServer server;
+    private static URI uri;
+    private static final CountDownLatch stall = new CountDownLatch(1);
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            String content = exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("X-MeSomb-Nonce")
+                    + " " + exchange.getRequestHeaders().getFirst("Content-Type") + " " + new String(request, StandardCharsets.UTF_8);
+            byte[] response = content.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Retry-After", "3");
+            exchange.sendResponseHeaders(201, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/stalled/", exchange -> {
+            exchange.sendResponseHeaders(200, 100);
+            exchange.getResponseBody().write("{\"status\":".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            try {
+                stall.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1.1/payment/collect/");
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        stall.countDown();
+        server.stop(0);
+    }
+
+    private static TransportRequest post() {
+        byte[] body = "{\"amount\":100}".getBytes(StandardCharsets.UTF_8);
+        return new TransportRequest("POST", uri, Collections.singletonMap("x-mesomb-nonce", "abc"), "application/json; charset=utf-8", body);
+    }
+
+    private static void assertEcho(TransportResponse response) throws IOException {
+        try (TransportResponse r = response) {
+            Assertions.assertEquals(201, r.getStatusCode());
+            Assertions.assertEquals("3", r.getHeader("retry-after"));
+            Assertions.assertEquals("POST abc application/json; charset=utf-8 {\"amount\":100}", r.getBodyString());
+        }
+    }
+
+    @Test
+    public void testOkHttpTransport() throws IOException, ExecutionException, InterruptedException {
+        try (OkHttpTransport transport = new OkHttpTransport(1, 60)) {
+            assertEcho(transport.execute(post()));
+            assertEcho(transport.executeAsync(post()).get());
+        }
+    }
+
+    @Test
+    public void testJdkHttpTransport() throws IOException, ExecutionException, InterruptedException {
+        try (JdkHttpTransport transport = new JdkHttpTransport()) {
+            assertEcho(transport.execute(post()));
+            assertEcho(transport.executeAsync(post()).get());
+        }
+    }
+
+    @Test
+    public void testJdkHttpTransportStalledBody() throws IOException {
+        URI stalled = uri.resolve("/stalled/");
+        TransportRequest request = new TransportRequest("GET", stalled, Collections.emptyMap(), null, null)
+                .withTimeout(Duration.ofMillis(500));
+        try (JdkHttpTransport transport = new JdkHttpTransport(); TransportResponse response = transport.execute(request)) {
+            Assertions.assertEquals(200, response.getStatusCode());
+            long start = System.nanoTime();
+            Assertions.assertThrows(HttpTimeoutException.class, response::getBodyString);
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        } finally {
+            stall.countDown();
+        }
+    }
+
+    @Test
+    public void testGetWithoutBody() throws IOException {
+        TransportRequest request = new TransportRequest("GET", uri, Collections.emptyMap(), null, null);
+        try (JdkHttpTransport transport = new JdkHttpTransport(); TransportResponse response = transport.execute(request)) {
+            Assertions.assertEquals("GET null null ", response.getBodyString());
+        }
+    }
+
+    @Test
+    public void testReaderDecodesUtf8() throws IOException {
+        byte[] body = "{\"name\":\"Caf\u00e9 \u20ac\"}".getBytes(StandardCharsets.UTF_8);
+        TransportResponse response = new TransportResponse(200, Collections.singletonMap("Content-Type", List.of("application/json")), new ByteArrayInputStream(body));
+        Assertions.assertEquals("application/json", response.getHeader("content-type"));
+        StringBuilder content = new StringBuilder();
+        try (Reader reader = response.getReader()) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                content.append((char) c);
+            }
+        }
+        Assertions.assertEquals("{\"name\":\"Caf\u00e9 \u20ac\"}", content.toString());
+    }
+}
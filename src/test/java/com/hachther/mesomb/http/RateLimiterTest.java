@@ -0,0 +1,58 @@
+package com.hachther.mesomb.http;
+
+import com.hachther.mesomb.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateLimiterTest {
+    @Test
+    public void testFailFastAfterBurst() throws RateLimitExceededException {
+        RateLimiter limiter = new RateLimiter(1, 2, 100, 10, true);
+        limiter.reserve("payment", "app", "POST");
+        limiter.reserve("payment", "app", "POST");
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve("payment", "app", "POST"));
+    }
+
+    @Test
+    public void testReadAndWriteBudgetsAreSeparated() throws RateLimitExceededException {
+        RateLimiter limiter = new RateLimiter(1, 1, 1, 1, true);
+        limiter.reserve("payment", "app", "POST");
+        Assertions.assertEquals(0, limiter.reserve("payment", "app", "GET"));
+        Assertions.assertEquals(0, limiter.reserve("payment", "other", "POST"));
+    }
+
+    @Test
+    public void testBlockingModeReturnsWaitTime() throws RateLimitExceededException {
+        RateLimiter limiter = new RateLimiter(10, 1, 10, 1, false);
+        Assertions.assertEquals(0, limiter.reserve("wallet", "provider", "POST"));
+        long wait = limiter.reserve("wallet", "provider", "POST");
+        Assertions.assertTrue(wait > 50000000L && wait <= 100000000L);
+    }
+
+    @Test
+    public void testBlockingAcquireWaits() throws RateLimitExceededException, InterruptedIOException {
+        RateLimiter limiter = new RateLimiter(20, 1, 20, 1, false);
+        long start = System.nanoTime();
+        limiter.acquire("payment", "app", "GET");
+        limiter.acquire("payment", "app", "GET");
+        Assertions.assertTrue(System.nanoTime() - start >= 40000000L);
+    }
+
+    @Test
+    public void testDoesNotWaitPastDeadline() throws RateLimitExceededException, InterruptedIOException {
+        RateLimiter limiter = new RateLimiter(1, 1, 1, 1, false);
+        limiter.acquire("payment", "app", "POST");
+        Deadline deadline = Deadline.after(100, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        assertThrows(InterruptedIOException.class, () -> limiter.acquire("payment", "app", "POST", deadline));
+        Assertions.assertTrue(System.nanoTime() - start < 100000000L);
+        // the token has not been reserved
+        long wait = limiter.reserve("payment", "app", "POST");
+        Assertions.assertTrue(wait > 0 && wait <= 1000000000L);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+public class RequestExecutorTest {
+    @Test
+    public void testRunsTasks() throws ExecutionException, InterruptedException {
+        Assertions.assertEquals("done", RequestExecutor.get().submit(() -> "done").get());
+        Assertions.assertSame(RequestExecutor.get(), RequestExecutor.get());
+    }
+
+    @Test
+    public void testRunsOnAnotherThread() throws ExecutionException, InterruptedException {
+        Thread caller = Thread.currentThread();
+        Assertions.assertNotSame(caller, RequestExecutor.get().submit(Thread::currentThread).get());
+    }
+
+    @Test
+    public void testIsVirtualMatchesThreads() throws ExecutionException, InterruptedException {
+        boolean pooled = RequestExecutor.get().submit(() -> Thread.currentThread().getName().startsWith("mesomb-request-")).get();
+        Assertions.assertEquals(!pooled, RequestExecutor.isVirtual());
+    }
+}
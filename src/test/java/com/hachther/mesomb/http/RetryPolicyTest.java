@@ -0,0 +1,49 @@
+package com.hachther.mesomb.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+public class RetryPolicyTest {
+    private final RetryPolicy policy = new RetryPolicy(3, 0.5, 2.0, 60.0);
+
+    @Test
+    public void testDelayStaysWithinBackoffCap() {
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(policy.getDelayMillis(0, null) <= 500);
+            Assertions.assertTrue(policy.getDelayMillis(1, null) <= 1000);
+            Assertions.assertTrue(policy.getDelayMillis(5, null) <= 2000);
+        }
+    }
+
+    @Test
+    public void testDelayHonorsRetryAfter() {
+        Assertions.assertEquals(3000, policy.getDelayMillis(0, "3"));
+        Assertions.assertTrue(policy.getDelayMillis(0, "120") <= 500);
+    }
+
+    @Test
+    public void testRetryOnConnectFailureForAnyRequest() {
+        Assertions.assertTrue(policy.shouldRetry(0, false, new ConnectException("Connection refused")));
+        Assertions.assertFalse(policy.shouldRetry(0, false, new SocketTimeoutException("timeout")));
+        Assertions.assertTrue(policy.shouldRetry(0, true, new SocketTimeoutException("timeout")));
+        Assertions.assertFalse(policy.shouldRetry(3, true, new IOException("unexpected end of stream")));
+    }
+
+    @Test
+    public void testRetryOnStatus() {
+        Assertions.assertTrue(policy.shouldRetry(0, true, 503, null));
+        Assertions.assertFalse(policy.shouldRetry(0, false, 503, null));
+        Assertions.assertTrue(policy.shouldRetry(0, false, 429, "1"));
+        Assertions.assertFalse(policy.shouldRetry(0, false, 429, "120"));
+        Assertions.assertFalse(policy.shouldRetry(0, true, 400, null));
+    }
+
+    @Test
+    public void testRetryDisabledByDefault() {
+        Assertions.assertFalse(new RetryPolicy(0, 0.5, 2.0, 60.0).shouldRetry(0, true, 503, null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.hachther.mesomb.models;
+
+import com.hachther.mesomb.util.JsonReader;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ModelBindingTest {
+    private static final String TRANSACTION = "{\"pk\":\"a4f2d1c9-7b0e-4c35-9e51-0d6f1f0e2b7a\",\"status\":\"SUCCESS\",\"type\":\"COLLECT\","
+            + "\"amount\":100.0,\"fees\":2,\"b_party\":\"237670000000\",\"message\":null,\"service\":\"MTN\",\"reference\":\"REF\","
+            + "\"ts\":\"2024-01-01T10:20:30Z\",\"country\":\"CM\",\"currency\":\"XAF\",\"fin_trx_id\":\"FIN\",\"trxamount\":102,"
+            + "\"unknown\":{\"nested\":[1,{\"a\":null}]},"
+            + "\"location\":{\"town\":\"Douala\",\"region\":\"Littoral\",\"country\":\"CM\"},"
+            + "\"customer\":{\"email\":\"fisher.bank@gmail.com\",\"phone\":\"+237677550439\",\"first_name\":\"Fisher\",\"last_name\":\"BANK\"},"
+            + "\"products\":[{\"id\":\"SKU001\",\"name\":\"Sac a Main\",\"category\":\"Sac\",\"quantity\":1,\"amount\":100.0}]}";
+
+    @Test
+    public void testTransactionResponse() throws Exception {
+        String json = "{\"success\":true,\"message\":\"Done\",\"redirect\":null,\"reference\":\"REF\",\"status\":\"SUCCESS\",\"transaction\":" + TRANSACTION + "}";
+        TransactionResponse expected = new TransactionResponse((JSONObject) new JSONParser().parse(json));
+        TransactionResponse actual = new TransactionResponse(new JsonReader(json));
+
+        Assertions.assertEquals(expected.success, actual.success);
+        Assertions.assertEquals(expected.message, actual.message);
+        Assertions.assertNull(actual.redirect);
+        Assertions.assertEquals(expected.reference, actual.reference);
+        Assertions.assertEquals(expected.status, actual.status);
+
+        Transaction e = expected.transaction;
+        Transaction a = actual.transaction;
+        Assertions.assertEquals(e.pk, a.pk);
+        Assertions.assertEquals(e.status, a.status);
+        Assertions.assertEquals(e.getAmount(), a.getAmount());
+        Assertions.assertEquals(e.getFees(), a.getFees());
+        Assertions.assertEquals(e.getTrxamount(), a.getTrxamount());
+        Assertions.assertEquals(2.0, a.getFees());
+        Assertions.assertEquals(0, a.getScale());
+        Assertions.assertEquals(100, a.getAmountMinor());
+        Assertions.assertEquals(102, e.getTrxamountMinor());
+        Assertions.assertEquals(e.date, a.date);
+        Assertions.assertNull(a.message);
+        Assertions.assertEquals(e.location.town, a.location.town);
+        Assertions.assertEquals(e.customer.firstName, a.customer.firstName);
+        Assertions.assertEquals(1, a.products.length);
+        Assertions.assertEquals(e.products[0].quantity, a.products[0].quantity);
+        Assertions.assertEquals(e.products[0].getAmount(), a.products[0].getAmount());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedAmountFields() throws Exception {
+        Transaction transaction = new Transaction(new JsonReader(TRANSACTION));
+        Assertions.assertEquals(100.0, transaction.amount);
+        Assertions.assertEquals(2.0, transaction.fees);
+        Assertions.assertEquals(102.0, transaction.trxamount);
+        Assertions.assertEquals(100.0, transaction.products[0].amount);
+        Assertions.assertSame(transaction.amount, transaction.getAmount());
+        Assertions.assertSame(transaction.products[0].amount, transaction.products[0].getAmount());
+
+        Transaction tree = new Transaction((JSONObject) new JSONParser().parse(TRANSACTION));
+        Assertions.assertEquals(transaction.fees, tree.fees);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLazyTransaction() throws Exception {
+        Transaction expected = new Transaction(new JsonReader(TRANSACTION));
+        Transaction lazy = new Transaction(new JsonReader(TRANSACTION), true);
+
+        Assertions.assertEquals(expected.pk, lazy.pk);
+        Assertions.assertNull(lazy.amount);
+        Assertions.assertEquals(expected.getAmount(), lazy.getAmount());
+        Assertions.assertSame(lazy.getAmount(), lazy.amount);
+        Assertions.assertNull(lazy.fees);
+        Assertions.assertNull(lazy.date);
+        Assertions.assertNull(lazy.location);
+        Assertions.assertNull(lazy.customer);
+        Assertions.assertNull(lazy.products);
+
+        Assertions.assertEquals(expected.date, lazy.getDate());
+        Assertions.assertEquals(expected.location.region, lazy.getLocation().region);
+        Assertions.assertEquals(expected.customer.email, lazy.getCustomer().email);
+        Assertions.assertEquals(expected.products[0].id, lazy.getProducts()[0].id);
+        Assertions.assertSame(lazy.getCustomer(), lazy.customer);
+        Assertions.assertEquals(expected.date, lazy.date);
+    }
+
+    @Test
+    public void testPaginatedWalletTransactions() throws Exception {
+        String json = "{\"count\":2,\"next\":null,\"previous\":\"https://mesomb.hachther.com/?page=1\",\"results\":[{\"id\":7,\"status\":\"SUCCESS\","
+                + "\"type\":\"DEPOSIT\",\"amount\":1500.0,\"direction\":-1,\"wallet\":42,\"balance_after\":3000.0,\"date\":\"2024-01-01T00:00:00Z\","
+                + "\"country\":\"CM\",\"fin_trx_id\":\"FIN\",\"message\":null,\"extra\":[]}]}";
+        PaginatedWalletTransactions page = new PaginatedWalletTransactions(new JsonReader(json));
+        Assertions.assertEquals(2, page.count);
+        Assertions.assertNull(page.next);
+        Assertions.assertEquals("https://mesomb.hachther.com/?page=1", page.previous);
+        Assertions.assertEquals(1, page.results.length);
+        Assertions.assertEquals(7L, page.results[0].id);
+        Assertions.assertEquals(-1, page.results[0].direction);
+        Assertions.assertEquals(1500.0, page.results[0].getAmount());
+        Assertions.assertEquals(3000, page.results[0].getBalanceAfterMinor("XAF"));
+        Assertions.assertEquals(300000, page.results[0].getBalanceAfterMinor("EUR"));
+        Assertions.assertEquals(((JSONObject) new JSONParser().parse(json)).get("results"), java.util.Collections.singletonList(page.results[0].getData()));
+    }
+}
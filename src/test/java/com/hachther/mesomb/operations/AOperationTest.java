@@ -0,0 +1,175 @@
+package com.hachther.mesomb.operations;
+
+import com.hachther.mesomb.MeSomb;
+import com.hachther.mesomb.exceptions.PermissionDeniedException;
+import com.hachther.mesomb.http.ConcurrencyLimiter;
+import com.hachther.mesomb.http.Deadline;
+import com.hachther.mesomb.http.HedgingPolicy;
+import com.hachther.mesomb.http.TransportRequest;
+import com.hachther.mesomb.models.Application;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AOperationTest {
+    static final String STATUS = "{\"key\":\"2bb525516ff374bb52545bf22ae4da7d655ba9fd\",\"logo\":null,\"balances\":[{\"country\":\"CM\","
+            + "\"currency\":\"XAF\",\"provider\":\"MTN\",\"value\":100.5,\"service_name\":\"MTN\"}],\"countries\":[\"CM\",\"NE\"],"
+            + "\"description\":null,\"name\":\"Meudocta Shop\",\"url\":null}";
+
+    @BeforeEach
+    public void onSetup() {
+        MeSomb.apiBase = "http://127.0.0.1:8000";
+    }
+
+    @AfterEach
+    public void onTearDown() {
+        MeSomb.hedgingPolicy = null;
+        MeSomb.concurrencyLimiter = null;
+        MeSomb.maxNetworkRetries = 0;
+        MeSomb.initialNetworkRetryDelay = 0.5;
+    }
+
+    static PaymentOperation payment(StubTransport transport) {
+        return new PaymentOperation("2bb525516ff374bb52545bf22ae4da7d655ba9fd", "c6c40b76-8119-4e93-81bf-bfb55417b392",
+                "fe8c2445-810f-4caa-95c9-778d51580163", "en", transport);
+    }
+
+    @Test
+    public void testBlockingCallRunsOnCallerThread() throws Exception {
+        StubTransport transport = StubTransport.json(200, STATUS);
+        Application application = payment(transport).getStatus();
+        Assertions.assertEquals("Meudocta Shop", application.name);
+        Assertions.assertEquals(1, transport.requests.size());
+        Assertions.assertSame(Thread.currentThread(), transport.threads.get(0));
+    }
+
+    @Test
+    public void testAsyncCallFailsAtDeadline() throws Exception {
+        CountDownLatch answer = new CountDownLatch(1);
+        StubTransport transport = new StubTransport(request -> {
+            try {
+                answer.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StubTransport.response(200, STATUS);
+        });
+        CompletableFuture<Application> future;
+        Deadline.Scope scope = Deadline.after(100, TimeUnit.MILLISECONDS).enter();
+        try (scope) {
+            future = payment(transport).getStatusAsync();
+        }
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(InterruptedIOException.class, exception.getCause());
+        answer.countDown();
+    }
+
+    /**
+     * @return a transport answering the first request after 300 ms and the next ones right away
+     */
+    private static StubTransport slowFirst() {
+        AtomicInteger count = new AtomicInteger();
+        return new StubTransport(request -> {
+            if (count.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return StubTransport.response(200, STATUS);
+        });
+    }
+
+    @Test
+    public void testHedgedCall() throws Exception {
+        MeSomb.hedgingPolicy = new HedgingPolicy(20);
+        StubTransport transport = slowFirst();
+        Assertions.assertEquals("Meudocta Shop", payment(transport).getStatus().name);
+        Assertions.assertEquals(2, transport.requests.size());
+    }
+
+    @Test
+    public void testHedgeNeedsAConcurrencySlot() throws Exception {
+        MeSomb.hedgingPolicy = new HedgingPolicy(20);
+        MeSomb.concurrencyLimiter = new ConcurrencyLimiter(1, 1, 1, 0.5, 2.0);
+        StubTransport transport = slowFirst();
+        Assertions.assertEquals("Meudocta Shop", payment(transport).getStatus().name);
+        Assertions.assertEquals(1, transport.requests.size());
+    }
+
+    @Test
+    public void testWarmup() throws Exception {
+        StubTransport transport = StubTransport.json(200, "");
+        PaymentOperation payment = payment(transport);
+        payment.warmup(3);
+        Assertions.assertEquals(3, transport.requests.size());
+        for (TransportRequest request : transport.requests) {
+            Assertions.assertEquals("HEAD", request.getMethod());
+            Assertions.assertEquals(URI.create("http://127.0.0.1:8000/"), request.getUri());
+        }
+    }
+
+    @Test
+    public void testWarmupFailsWhenUnreachable() {
+        StubTransport transport = new StubTransport(request -> {
+            throw new ConnectException("Connection refused");
+        });
+        Assertions.assertThrows(ConnectException.class, () -> payment(transport).warmup(2));
+    }
+
+    @Test
+    public void testGetStatusAsyncSuccess() throws Exception {
+        StubTransport transport = StubTransport.json(200, STATUS);
+        Application application = payment(transport).getStatusAsync().get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("Meudocta Shop", application.name);
+        Assertions.assertArrayEquals(new String[]{"CM", "NE"}, application.countries);
+        Assertions.assertEquals(1, transport.requests.size());
+        Assertions.assertEquals("GET", transport.requests.get(0).getMethod());
+        Assertions.assertNotSame(Thread.currentThread(), transport.threads.get(0));
+    }
+
+    @Test
+    public void testGetStatusAsyncPermissionDenied() {
+        StubTransport transport = StubTransport.json(403, "{\"detail\":\"Invalid access key\",\"code\":\"invalid-access-key\"}");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> payment(transport).getStatusAsync().get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(PermissionDeniedException.class, exception.getCause());
+        Assertions.assertEquals("Invalid access key", exception.getCause().getMessage());
+    }
+
+    @Test
+    public void testHedgingLatenciesAreSharedByIdentifiers() throws Exception {
+        HedgingPolicy policy = new HedgingPolicy(1000, 95);
+        MeSomb.hedgingPolicy = policy;
+        StubTransport transport = StubTransport.json(200, "{\"id\":1,\"number\":\"1\",\"country\":\"CM\",\"status\":\"ACTIVE\",\"balance\":10}");
+        WalletOperation wallet = new WalletOperation("a1dc7a7391c538788043", "c6c40b76-8119-4e93-81bf-bfb55417b392",
+                "fe8c2445-810f-4caa-95c9-778d51580163", "en", transport);
+        for (long id = 1; id <= 30; id++) {
+            wallet.getWallet(id);
+        }
+        Assertions.assertTrue(policy.getDelayMillis("/api/v1.1/wallet/wallets/{id}/") < 1000);
+        Assertions.assertEquals(1000, policy.getDelayMillis("/api/v1.1/wallet/wallets/1/"));
+    }
+
+    @Test
+    public void testAsyncRetryAfterServerError() throws Exception {
+        MeSomb.maxNetworkRetries = 1;
+        MeSomb.initialNetworkRetryDelay = 0.01;
+        AtomicInteger count = new AtomicInteger();
+        StubTransport transport = new StubTransport(request -> count.getAndIncrement() == 0
+                ? StubTransport.response(503, "{\"detail\":\"Unavailable\"}") : StubTransport.response(200, STATUS));
+        Application application = payment(transport).getStatusAsync().get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("Meudocta Shop", application.name);
+        Assertions.assertEquals(2, transport.requests.size());
+    }
+}
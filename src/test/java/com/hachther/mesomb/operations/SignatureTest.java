@@ -1,13 +1,21 @@
 package com.hachther.mesomb.operations;
 
+import com.hachther.mesomb.EndpointTemplate;
+import com.hachther.mesomb.MeSomb;
 import com.hachther.mesomb.Signature;
 import com.hachther.mesomb.util.RandomGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.*;
 
 public class SignatureTest {
@@ -50,4 +58,71 @@ public class SignatureTest {
             put("content-type", "application/json; charset=utf-8");
         }}, body), "HMAC-SHA1 Credential=c6c40b76-8119-4e93-81bf-bfb55417b392/20230116/payment/mesomb_request, SignedHeaders=content-type;host;x-mesomb-date;x-mesomb-nonce, Signature=06fa0b179edd88a40d3652f731f61defcf2e8d11");
     }
+
+    @Test
+    public void testHashes() throws NoSuchAlgorithmException, InvalidKeyException {
+        Assertions.assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", Signature.sha1("abc"));
+        Assertions.assertEquals("effcdf6ae5eb2fa2d27416d5f184df9c259a7c79", Signature.hmacSha1("Jefe", "what do ya want for nothing?"));
+        Assertions.assertEquals("effcdf6ae5eb2fa2d27416d5f184df9c259a7c79", Signature.hmacSha1("Jefe", "what do ya want for nothing?"));
+        Assertions.assertNotEquals(Signature.hmacSha1("Jefe", "abc"), Signature.hmacSha1("Jeff", "abc"));
+        Assertions.assertEquals("effcdf6ae5eb2fa2d27416d5f184df9c259a7c79", new Signature.SigningKey("Jefe").hmacSha1("what do ya want for nothing?"));
+        Assertions.assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", Signature.bytesToHex(MessageDigest.getInstance("SHA-1").digest()));
+        Assertions.assertEquals(128, Signature.bytesToHex(new byte[64]).length());
+        Assertions.assertEquals(Signature.sha1("caf\u00e9".getBytes(StandardCharsets.UTF_8)), Signature.sha1("caf\u00e9"));
+    }
+
+    @Test
+    public void testSignatureOfSerializedBody() throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        String url = "http://127.0.0.1:8000/en/api/v1.1/payment/collect/";
+        Map<String, Object> body = new HashMap<String, Object>() {{
+            put("amount", 100f);
+            put("message", "a/b");
+        }};
+        byte[] content = Signature.serializeBody(body);
+        Assertions.assertEquals("{\"amount\":100.0,\"message\":\"a/b\"}", new String(content, StandardCharsets.UTF_8));
+        Assertions.assertEquals(
+                Signature.signRequest("payment", "POST", url, new Date(1673827200000L), "fihser", credentials, null, body),
+                Signature.signEncodedRequest("payment", "POST", url, new Date(1673827200000L), "fihser", credentials, null, content)
+        );
+    }
+
+    @Test
+    public void testSignatureWithTemplate() throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        String url = "http://127.0.0.1:8000/en/api/v1.1/payment/transactions/";
+        EndpointTemplate get = EndpointTemplate.compile(url, null);
+        Assertions.assertEquals("http://127.0.0.1:8000", get.getHost());
+        Assertions.assertEquals(URI.create(url + "?ids=a,b"), get.toUri("ids=a,b"));
+        Assertions.assertEquals(URI.create(url + "?ids=a%20b&source=My%20App%7C%C3%A9%25"), get.toUri("ids=a%20b&source=My App|\u00e9%"));
+        Assertions.assertEquals(
+                Signature.signRequest("payment", "GET", url + "?ids=a,b", new Date(1673827200000L), "fihser", credentials, null, null),
+                Signature.signRequest("payment", "GET", get, "ids=a,b", new Date(1673827200000L), "fihser", credentials.get("accessKey"), credentials.get("secretKey"), null)
+        );
+
+        EndpointTemplate post = EndpointTemplate.compile(url, "application/json; charset=utf-8");
+        byte[] content = Signature.serializeBody(Collections.singletonMap("amount", 100));
+        Assertions.assertEquals(
+                Signature.signEncodedRequest("payment", "POST", url, new Date(1673827200000L), "fihser", credentials, new TreeMap<String, String>() {{
+                    put("content-type", "application/json; charset=utf-8");
+                }}, content),
+                Signature.signRequest("payment", "POST", post, "", new Date(1673827200000L), "fihser", credentials.get("accessKey"), credentials.get("secretKey"), content)
+        );
+    }
+
+    @Test
+    public void testScopeFollowsUtcDay() throws MalformedURLException, NoSuchAlgorithmException, InvalidKeyException {
+        Clock clock = MeSomb.clock;
+        try {
+            MeSomb.clock = Clock.fixed(Instant.parse("2023-01-15T23:59:59Z"), ZoneOffset.UTC);
+            Date date = new PaymentOperation("app", "access", "secret").now();
+            Assertions.assertEquals(1673827199000L, date.getTime());
+            String url = "http://127.0.0.1:8000/en/api/v1.1/payment/collect/";
+            Assertions.assertTrue(Signature.signRequest("payment", "GET", url, date, "fihser", credentials, null, null).contains("/20230115/payment/mesomb_request,"));
+            Assertions.assertTrue(Signature.signRequest("payment", "GET", url, new Date(1673827200000L), "fihser", credentials, null, null).contains("/20230116/payment/mesomb_request,"));
+            Assertions.assertTrue(Signature.signRequest("wallet", "GET", url, new Date(1673827200000L), "fihser", credentials, null, null).contains("/20230116/wallet/mesomb_request,"));
+            Assertions.assertTrue(Signature.signRequest("payment", "GET", url, new Date(1673827200000L), "fihser", credentials, null, null).contains("/20230116/payment/mesomb_request,"));
+            Assertions.assertTrue(Signature.signRequest("wallet", "GET", url, date, "fihser", credentials, null, null).contains("/20230115/wallet/mesomb_request,"));
+        } finally {
+            MeSomb.clock = clock;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.hachther.mesomb.operations;
+
+import com.hachther.mesomb.http.HttpTransport;
+import com.hachther.mesomb.http.TransportRequest;
+import com.hachther.mesomb.http.TransportResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transport answering the requests of the operations without network, recording them and the threads sending them
+ */
+class StubTransport implements HttpTransport {
+    interface Handler {
+        TransportResponse handle(TransportRequest request) throws IOException;
+    }
+
+    final List<TransportRequest> requests = new CopyOnWriteArrayList<>();
+    final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final Handler handler;
+
+    StubTransport(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @param status the status of every response
+     * @param body the JSON body of every response
+     * @return a transport giving the same response to every request
+     */
+    static StubTransport json(int status, String body) {
+        return new StubTransport(request -> response(status, body));
+    }
+
+    static TransportResponse response(int status, String body) {
+        return new TransportResponse(status, Collections.singletonMap("Content-Type", List.of("application/json")),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        requests.add(request);
+        threads.add(Thread.currentThread());
+        return handler.handle(request);
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(request);
+            } catch (IOException e) {
+                throw new java.util.concurrent.CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,114 @@
+package com.hachther.mesomb.requests;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RequestsTest {
+    private static String json(ARequest request) {
+        return new String(request.toJson(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCollectRequest() throws Exception {
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("email", "contact@gmail.com");
+        customer.put("first_name", "Hach\u00e9");
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", "Sac");
+        product.put("quantity", 1);
+        product.put("amount", 100.5);
+
+        CollectRequest request = CollectRequest.builder(100, "MTN", "670000000")
+                .currency("EUR")
+                .conversion(true)
+                .customer(customer)
+                .products(Collections.singletonList(product))
+                .trxID("1")
+                .nonce("abc")
+                .build();
+        customer.put("email", "changed@gmail.com");
+
+        Assertions.assertEquals("{\"amount\":100.0,\"service\":\"MTN\",\"payer\":\"670000000\",\"country\":\"CM\",\"currency\":\"EUR\","
+                + "\"amount_currency\":\"EUR\",\"fees\":true,\"conversion\":true,\"customer\":{\"email\":\"contact@gmail.com\","
+                + "\"first_name\":\"Hach\u00e9\"},\"products\":[{\"name\":\"Sac\",\"quantity\":1,\"amount\":100.5}]}", json(request));
+        Assertions.assertEquals("1", request.getTrxID());
+        Assertions.assertEquals("abc", request.getNonce());
+        Assertions.assertEquals("synchronous", request.getMode());
+
+        // same members as the body built from a map by makeCollect
+        Map<String, Object> body = new HashMap<>();
+        body.put("amount", 100.0);
+        body.put("service", "MTN");
+        body.put("payer", "670000000");
+        body.put("country", "CM");
+        body.put("currency", "EUR");
+        body.put("amount_currency", "EUR");
+        body.put("fees", true);
+        body.put("conversion", true);
+        body.put("customer", request.getCustomer());
+        body.put("products", request.getProducts());
+        Assertions.assertEquals(new JSONParser().parse(JSONObject.toJSONString(body)), new JSONParser().parse(json(request)));
+    }
+
+    @Test
+    public void testDepositAndAirtimeRequests() {
+        Assertions.assertEquals("{\"amount\":50.0,\"service\":\"ORANGE\",\"receiver\":\"690000000\",\"country\":\"CM\",\"currency\":\"XAF\","
+                + "\"amount_currency\":\"XAF\",\"conversion\":false}", json(DepositRequest.builder(50, "ORANGE", "690000000").build()));
+        AirtimeRequest airtime = AirtimeRequest.builder(50, "MTN", "670000000", "MTN").build();
+        Assertions.assertEquals("{\"amount\":50.0,\"service\":\"MTN\",\"receiver\":\"670000000\",\"merchant\":\"MTN\",\"country\":\"CM\","
+                + "\"currency\":\"XAF\",\"amount_currency\":\"XAF\"}", json(airtime));
+        Assertions.assertEquals(json(airtime), json(AirtimeRequest.builder(5000L, 2, "MTN", "670000000", "MTN").build()));
+        Assertions.assertEquals(50, airtime.getAmountMinor());
+        Assertions.assertNull(airtime.getMode());
+        Assertions.assertNull(airtime.getNonce());
+    }
+
+    @Test
+    public void testContributionRequest() {
+        ContributionRequest request = ContributionRequest.builder(100, "MTN", "670000000")
+                .anonymous(true)
+                .fullName("John", null)
+                .contact("+237670000000", null)
+                .mode("asynchronous")
+                .build();
+        Assertions.assertEquals("{\"amount\":100.0,\"service\":\"MTN\",\"payer\":\"670000000\",\"country\":\"CM\",\"amount_currency\":\"XAF\","
+                + "\"conversion\":false,\"anonymous\":true,\"accept_terms\":true,\"full_name\":{\"first_name\":\"John\"},"
+                + "\"contact\":{\"phone_number\":\"+237670000000\"}}", json(request));
+        Assertions.assertEquals("asynchronous", request.getMode());
+    }
+
+    @Test
+    public void testWalletAdjustRequest() {
+        WalletAdjustRequest add = WalletAdjustRequest.add(42, 1000).externalId("ext").build();
+        Assertions.assertEquals("{\"amount\":1000.0,\"direction\":1}", json(add));
+        Assertions.assertEquals("ext", add.getTrxID());
+        Assertions.assertEquals(42, add.getWallet());
+        Assertions.assertEquals("{\"amount\":0.1,\"direction\":1}", json(WalletAdjustRequest.add(42, 10, 2).build()));
+        Assertions.assertEquals(100000, add.getAmountMinor("EUR"));
+        Assertions.assertEquals(1000, add.getAmountMinor("XAF"));
+
+        WalletAdjustRequest remove = WalletAdjustRequest.remove(42, 1000).force(true).message("Refund \"1\"").build();
+        Assertions.assertEquals("{\"amount\":1000.0,\"direction\":-1,\"force\":true,\"message\":\"Refund \\\"1\\\"\"}", json(remove));
+    }
+
+    @Test
+    public void testWalletTransferRequest() {
+        WalletTransferRequest transfer = WalletTransferRequest.builder(42, 43, 1050L, 2).externalId("ext").build();
+        Assertions.assertEquals("{\"amount\":10.5,\"to\":43,\"force\":false}", json(transfer));
+        Assertions.assertEquals("ext", transfer.getTrxID());
+        Assertions.assertEquals(42, transfer.getFrom());
+        Assertions.assertEquals(11, transfer.getAmountMinor("XAF"));
+
+        // float amounts are sent without their noise
+        Assertions.assertEquals("{\"amount\":0.1,\"to\":43,\"force\":true,\"message\":\"m\"}",
+                json(WalletTransferRequest.builder(42, 43, 0.1f).force(true).message("m").build()));
+    }
+}
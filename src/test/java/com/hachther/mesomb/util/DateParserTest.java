@@ -0,0 +1,42 @@
+package com.hachther.mesomb.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+public class DateParserTest {
+    @Test
+    public void testFormats() throws ParseException {
+        Assertions.assertEquals(Instant.parse("2024-01-01T10:20:30Z"), DateParser.parseInstant("2024-01-01T10:20:30Z"));
+        Assertions.assertEquals(Instant.parse("2024-01-01T09:20:30Z"), DateParser.parseInstant("2024-01-01T10:20:30+0100"));
+        Assertions.assertEquals(Instant.parse("2024-01-01T09:20:30Z"), DateParser.parseInstant("2024-01-01T10:20:30+01:00"));
+        Assertions.assertEquals(Instant.parse("2024-01-01T11:20:30Z"), DateParser.parseInstant("2024-01-01T10:20:30-01"));
+        Assertions.assertEquals(Instant.parse("2024-02-29T23:59:59.123456Z"), DateParser.parseInstant("2024-02-29T23:59:59.123456Z"));
+        Assertions.assertEquals(Date.from(Instant.parse("2024-01-01T10:20:30.5Z")), DateParser.parse("2024-01-01T10:20:30.500Z"));
+    }
+
+    @Test
+    public void testMatchesJavaTime() throws ParseException {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX");
+        OffsetDateTime date = OffsetDateTime.parse("1969-12-31T23:59:59+05:30");
+        for (int i = 0; i < 2000; i++) {
+            String text = date.format(format);
+            Assertions.assertEquals(date.toInstant(), DateParser.parseInstant(text), text);
+            date = date.plusHours(4391).plusSeconds(37);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        String[] dates = {null, "", "2024-01-01", "2024-01-01T10:20:30", "2024-13-01T10:20:30Z", "2023-02-29T10:20:30Z",
+                "2024-01-01T24:00:00Z", "2024-01-01 10:20:30Z", "2024-01-01T10:20:30.Z", "2024-01-01T10:20:30+1", "2024-01-01T10:20:30Zx"};
+        for (String date : dates) {
+            Assertions.assertThrows(ParseException.class, () -> DateParser.parseInstant(date), date);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.hachther.mesomb.util;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+public class JsonReaderTest {
+    private static final String DOCUMENT = "{\"name\":\"Caf\\u00e9 \\\"au\\\" lait\\n\", \"amount\":100.25,\"fees\":-2,\"big\":1.5e3,\"ok\":true,"
+            + "\"none\":null,\"list\":[1,2.5,\"a/b\",{\"x\":[]},{}],\"escaped\\/key\":\"\\/\"}";
+
+    /** Reader returning one character at a time, to read every token across buffer boundaries */
+    private static Reader slow(String json) {
+        return new StringReader(json) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+    }
+
+    @Test
+    public void testTokens() throws IOException, ParseException {
+        for (JsonReader reader : new JsonReader[] {new JsonReader(DOCUMENT), new JsonReader(slow(DOCUMENT))}) {
+            reader.beginObject();
+            Assertions.assertEquals("name", reader.nextName());
+            Assertions.assertEquals("Caf\u00e9 \"au\" lait\n", reader.nextString());
+            Assertions.assertEquals("amount", reader.nextName());
+            Assertions.assertEquals(100.25, reader.nextDouble());
+            Assertions.assertEquals("fees", reader.nextName());
+            Assertions.assertEquals(-2L, reader.nextLong());
+            Assertions.assertEquals("big", reader.nextName());
+            Assertions.assertEquals(1500L, reader.nextLong());
+            Assertions.assertEquals("ok", reader.nextName());
+            Assertions.assertTrue(reader.nextBoolean());
+            Assertions.assertEquals("none", reader.nextName());
+            Assertions.assertNull(reader.nextNullableDouble());
+            Assertions.assertEquals("list", reader.nextName());
+            reader.skipValue();
+            Assertions.assertEquals("escaped/key", reader.nextName());
+            Assertions.assertEquals("/", reader.nextString());
+            Assertions.assertFalse(reader.hasNext());
+            reader.endObject();
+            Assertions.assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    @Test
+    public void testNextValueMatchesJsonSimple() throws IOException, ParseException {
+        Object expected = new JSONParser().parse(DOCUMENT);
+        Assertions.assertEquals(expected, new JsonReader(DOCUMENT).nextValue());
+        Assertions.assertEquals(expected, new JsonReader(slow(DOCUMENT)).nextValue());
+    }
+
+    @Test
+    public void testNextRawValue() throws IOException, ParseException {
+        for (JsonReader reader : new JsonReader[] {new JsonReader(DOCUMENT), new JsonReader(slow(DOCUMENT))}) {
+            reader.beginObject();
+            reader.nextName();
+            Assertions.assertEquals("\"Caf\\u00e9 \\\"au\\\" lait\\n\"", reader.nextRawValue());
+            reader.nextName();
+            Assertions.assertEquals("100.25", reader.nextRawValue());
+            reader.nextName();
+            reader.skipValue();
+            reader.nextName();
+            reader.skipValue();
+            reader.nextName();
+            Assertions.assertEquals("true", reader.nextRawValue());
+            reader.nextName();
+            Assertions.assertEquals("null", reader.nextRawValue());
+            reader.nextName();
+            Assertions.assertEquals("[1,2.5,\"a/b\",{\"x\":[]},{}]", reader.nextRawValue());
+            Assertions.assertEquals("escaped/key", reader.nextName());
+            Assertions.assertEquals("/", reader.nextString());
+            reader.endObject();
+        }
+    }
+
+    @Test
+    public void testNumbers() throws IOException, ParseException {
+        String[] numbers = {"0", "-0.0", "0.1", "123456.789", "1e-7", "9007199254740993", "0.30000000000000004", "1234567890123456789"};
+        for (String number : numbers) {
+            Assertions.assertEquals(Double.parseDouble(number), new JsonReader(number).nextDouble(), number);
+        }
+        Assertions.assertEquals(1234567890123456789L, new JsonReader("1234567890123456789").nextLong());
+        Assertions.assertEquals(42L, new JsonReader("\"42\"").nextLong());
+        Assertions.assertThrows(ParseException.class, () -> new JsonReader("1.5").nextLong());
+        Assertions.assertThrows(ParseException.class, () -> new JsonReader("-").nextDouble());
+    }
+
+    @Test
+    public void testNextFixed() throws IOException, ParseException {
+        Assertions.assertEquals(100250L, new JsonReader("100.25").nextFixed(3));
+        Assertions.assertEquals(100000L, new JsonReader("100").nextFixed(3));
+        Assertions.assertEquals(-2L, new JsonReader("-0.0015").nextFixed(3));
+        Assertions.assertEquals(1L, new JsonReader("0.0005").nextFixed(3));
+        Assertions.assertEquals(300L, new JsonReader("0.1").nextFixed(3) + new JsonReader("0.2").nextFixed(3));
+        Assertions.assertEquals(1500000L, new JsonReader("1.5e3").nextFixed(3));
+        Assertions.assertEquals(42000L, new JsonReader("\"42\"").nextFixed(3));
+        Assertions.assertEquals(Long.MIN_VALUE, new JsonReader("null").nextNullableFixed(3, Long.MIN_VALUE));
+        Assertions.assertThrows(ParseException.class, () -> new JsonReader("true").nextFixed(3));
+    }
+
+    @Test
+    public void testPooledStrings() throws IOException, ParseException {
+        JsonReader reader = new JsonReader("[\"XAF\",\"X\\u0041F\",null,{\"status\":\"SUCCESS\",\"message\":\"SUCCESS!\"}]");
+        reader.beginArray();
+        String currency = reader.nextPooledString();
+        Assertions.assertSame(StringPool.intern("XAF"), currency);
+        Assertions.assertSame(currency, reader.nextPooledString());
+        Assertions.assertNull(reader.nextPooledString());
+        JSONObject object = reader.nextObject();
+        Assertions.assertSame(StringPool.intern("SUCCESS"), object.get("status"));
+        Assertions.assertEquals("SUCCESS!", object.get("message"));
+        reader.endArray();
+    }
+
+    @Test
+    public void testNamesAreShared() throws IOException, ParseException {
+        JsonReader reader = new JsonReader("[{\"status\":1},{\"status\":2}]");
+        reader.beginArray();
+        reader.beginObject();
+        String first = reader.nextName();
+        reader.skipValue();
+        reader.endObject();
+        reader.beginObject();
+        Assertions.assertSame(first, reader.nextName());
+    }
+
+    @Test
+    public void testInvalidDocuments() {
+        for (String json : new String[] {"{\"a\" 1}", "[1,]", "{\"a\":1,}", "[1 2]", "{\"a\":tru}", "\"abc", "[", "{} {}"}) {
+            Assertions.assertThrows(ParseException.class, () -> {
+                JsonReader reader = new JsonReader(json);
+                reader.skipValue();
+                reader.peek();
+            }, json);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.hachther.mesomb.util;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class JsonWriterTest {
+    private static String write(Object value) {
+        return new String(new JsonWriter().value(value).toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testValues() {
+        Assertions.assertEquals("{\"a\":[1,-2.5,3.0,4.5,true,null,\"x\"],\"b\":{},\"c\":[]}", new String(new JsonWriter()
+                .beginObject()
+                .name("a").beginArray().value(1).value(-2.5).value(3f).value(new BigDecimal("4.5")).value(true).nullValue().value("x").endArray()
+                .name("b").beginObject().endObject()
+                .name("c").beginArray().endArray()
+                .endObject().toByteArray(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("-9223372036854775808", write(Long.MIN_VALUE));
+        Assertions.assertEquals("1.0E-7", write(1e-7));
+        Assertions.assertEquals("null", write(Double.NaN));
+        Assertions.assertEquals("[false,[]]", write(new Object[] {false, new String[0]}));
+    }
+
+    @Test
+    public void testFixed() {
+        Assertions.assertEquals("[100.5,100.0,0.005,-1.25,7.0,-0.001]", new String(new JsonWriter()
+                .beginArray()
+                .value(100500, 3).value(100000, 3).value(5, 3).value(-1250, 3).value(7, 0).value(-1, 3)
+                .endArray().toByteArray(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("-92233720368547.75808", new String(new JsonWriter().value(Long.MIN_VALUE, 5).toByteArray(), StandardCharsets.UTF_8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JsonWriter().value(1, 19));
+    }
+
+    @Test
+    public void testStrings() throws ParseException {
+        String value = "a/b \"q\" \\ \b\f\n\r\t \u0001 \u00e9 \u20ac \ud83d\ude00";
+        Assertions.assertEquals("\"a/b \\\"q\\\" \\\\ \\b\\f\\n\\r\\t \\u0001 \u00e9 \u20ac \ud83d\ude00\"", write(value));
+        Assertions.assertArrayEquals(write(value).getBytes(StandardCharsets.UTF_8), new JsonWriter().value(value).toByteArray());
+        Assertions.assertEquals(value, new JSONParser().parse(write(value)));
+    }
+
+    @Test
+    public void testMatchesJsonSimple() throws ParseException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("amount", 100.0f);
+        map.put("count", 3);
+        map.put("nested", Arrays.asList(1L, "two", null, Arrays.asList(false, 2.5)));
+        Assertions.assertEquals(new JSONParser().parse(JSONObject.toJSONString(map)), new JSONParser().parse(write(map)));
+    }
+
+    @Test
+    public void testInvalid() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new JsonWriter().name("a"));
+        Assertions.assertThrows(IllegalStateException.class, () -> new JsonWriter().endObject());
+        Assertions.assertThrows(IllegalStateException.class, () -> new JsonWriter().beginObject().name("a").endObject());
+    }
+}
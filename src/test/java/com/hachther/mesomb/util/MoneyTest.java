@@ -0,0 +1,40 @@
+package com.hachther.mesomb.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+    @Test
+    public void testScale() {
+        Assertions.assertEquals(0, Money.scale("XAF"));
+        Assertions.assertEquals(0, Money.scale("XOF"));
+        Assertions.assertEquals(2, Money.scale("EUR"));
+        Assertions.assertEquals(3, Money.scale("KWD"));
+        Assertions.assertEquals(2, Money.scale(null));
+        Assertions.assertEquals(2, Money.scale("???"));
+    }
+
+    @Test
+    public void testConversions() {
+        Assertions.assertEquals(100500L, Money.of(100.5));
+        Assertions.assertEquals(300L, Money.of(0.1) + Money.of(0.2));
+        Assertions.assertEquals(2000L, Money.of((Object) 2L));
+        Assertions.assertEquals(1010L, Money.of((Object) 1.01));
+        Assertions.assertEquals(Money.NONE, Money.of((Object) null));
+        Assertions.assertEquals(Money.NONE, Money.of((Object) "1"));
+        Assertions.assertEquals(10050L, Money.toMinor(Money.of(100.5), 2));
+        Assertions.assertEquals(101L, Money.toMinor(1005, 2));
+        Assertions.assertEquals(-101L, Money.toMinor(-1005, 2));
+        Assertions.assertEquals(100500L, Money.fromMinor(10050, 2));
+        Assertions.assertEquals(100.5, Money.toDouble(100500));
+        Assertions.assertNull(Money.toBoxed(Money.NONE));
+    }
+
+    @Test
+    public void testInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Money.of(Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Money.of(1e300));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Money.toMinor(1, 4));
+        Assertions.assertThrows(ArithmeticException.class, () -> Money.fromMinor(Long.MAX_VALUE, 2));
+    }
+}
@@ -0,0 +1,53 @@
+package com.hachther.mesomb.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class RandomGeneratorTest {
+    @Test
+    public void testNonce() {
+        Assertions.assertEquals(40, RandomGenerator.nonce().length());
+        for (int length : new int[] {0, 1, 40, 1000}) {
+            String nonce = RandomGenerator.nonce(length);
+            Assertions.assertEquals(length, nonce.length());
+            Assertions.assertTrue(nonce.matches("[0-9a-zA-Z]*"));
+        }
+        Assertions.assertNotEquals(RandomGenerator.nonce(), RandomGenerator.nonce());
+    }
+
+    @Test
+    public void testUniqueNonce() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                List<String> nonces = new ArrayList<>();
+                for (int j = 0; j < 1000; j++) {
+                    nonces.add(RandomGenerator.uniqueNonce(40));
+                }
+                return nonces;
+            }));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Set<String> counters = new HashSet<>();
+        for (Future<List<String>> result : results) {
+            for (String nonce : result.get()) {
+                Assertions.assertTrue(nonce.matches("[0-9a-zA-Z]{40}"));
+                counters.add(nonce.substring(0, 11));
+            }
+        }
+        Assertions.assertEquals(8000, counters.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomGenerator.uniqueNonce(11));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hachther.mesomb.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+    @Test
+    public void testKnownValues() {
+        String status = new String("SUCCESS");
+        Assertions.assertSame(StringPool.intern("SUCCESS"), StringPool.intern(status));
+        Assertions.assertSame(StringPool.intern("XAF"), StringPool.intern("XAF".toCharArray(), 0, 3));
+        Assertions.assertSame(StringPool.intern("MTN"), StringPool.known("[MTN]".toCharArray(), 1, 3));
+        Assertions.assertNull(StringPool.known("unknown".toCharArray(), 0, 7));
+        Assertions.assertNull(StringPool.intern(null));
+    }
+
+    @Test
+    public void testUnknownValues() {
+        String first = StringPool.intern(new String("PROVIDER_X"));
+        Assertions.assertSame(first, StringPool.intern(new String("PROVIDER_X")));
+        Assertions.assertSame(first, StringPool.intern("PROVIDER_X".toCharArray(), 0, 10));
+
+        String value = "a value longer than the max length";
+        Assertions.assertSame(value, StringPool.intern(value));
+        Assertions.assertNotSame(StringPool.intern(value.toCharArray(), 0, value.length()), StringPool.intern(value.toCharArray(), 0, value.length()));
+    }
+
+    @Test
+    public void testKnownValuesAreKept() {
+        // the known values are not evicted by other values
+        for (int i = 0; i < 100000; i++) {
+            StringPool.intern("value" + i);
+        }
+        String status = new String("PENDING");
+        Assertions.assertSame(StringPool.intern("PENDING"), StringPool.intern(status));
+        Assertions.assertNotSame(status, StringPool.intern(status));
+    }
+}